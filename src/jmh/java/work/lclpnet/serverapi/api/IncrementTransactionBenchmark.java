@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+import work.lclpnet.lclpnetwork.util.JsonBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IncrementTransactionBenchmark {
+
+    @Param({"1", "100"})
+    public int players;
+
+    private IncrementTransaction single;
+    private List<IncrementTransaction> transactions;
+
+    @Setup
+    public void setUp() {
+        CurrencyMassIncrementTransaction mass = new CurrencyMassIncrementTransaction();
+
+        for (int i = 0; i < players; i++) {
+            String uuid = UUID.randomUUID().toString();
+            mass.addCoins(uuid, 3, "mcserver.bench.reward", true);
+            mass.addPoints(uuid, 10);
+        }
+
+        transactions = mass.getTransactions();
+        single = transactions.get(0);
+    }
+
+    @Benchmark
+    public JsonElement serializeTransaction() {
+        return single.toJson();
+    }
+
+    /**
+     * Builds the request body of {@link work.lclpnet.serverapi.MCServerAPI#incrementStat(String, Iterable)}.
+     */
+    @Benchmark
+    public String serializeRequestBody() {
+        JsonObject body = JsonBuilder.object()
+                .set("statType", StatTypes.CURRENCY)
+                .beginArray("transactions").addAll(transactions).endArray()
+                .createObject();
+
+        return body.toString();
+    }
+}
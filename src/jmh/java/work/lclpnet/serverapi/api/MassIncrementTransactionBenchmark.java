@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.api;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MassIncrementTransactionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int players;
+
+    private String[] uuids;
+
+    @Setup
+    public void setUp() {
+        uuids = new String[players];
+
+        for (int i = 0; i < players; i++) {
+            uuids[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * Every player receives points and coins three times, like at the end of several game rounds.
+     */
+    @Benchmark
+    public MassIncrementTransaction addRounds() {
+        MassIncrementTransaction transaction = new MassIncrementTransaction(StatTypes.CURRENCY);
+
+        for (int round = 0; round < 3; round++) {
+            for (String uuid : uuids) {
+                transaction.add(uuid, StatItems.POINTS, 5);
+                transaction.add(uuid, StatItems.COINS, 1);
+            }
+        }
+
+        return transaction;
+    }
+
+    @Benchmark
+    public CurrencyMassIncrementTransaction addCoins() {
+        CurrencyMassIncrementTransaction transaction = new CurrencyMassIncrementTransaction();
+
+        for (String uuid : uuids) {
+            transaction.addCoins(uuid, 2, "mcserver.bench.reward", true);
+        }
+
+        return transaction;
+    }
+}
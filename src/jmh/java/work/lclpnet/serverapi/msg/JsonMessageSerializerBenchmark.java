@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonMessageSerializerBenchmark {
+
+    private JsonMessageSerializer serializer;
+    private MCMessage message, optimized;
+    private MessageTemplate template;
+
+    @Setup
+    public void setUp() {
+        MapTranslator translator = new MapTranslator();
+        translator.put("de_de", "stats.title", "Statistiken von %s");
+
+        serializer = new JsonMessageSerializer(translator);
+        message = MCMessage.prefixed().thenTranslate("stats.title",
+                MCMessage.blank().setColor(MCMessage.MessageColor.YELLOW).text("Steve"));
+        optimized = MessageOptimizer.optimize(message);
+        template = MessageTemplate.of(MCMessage.prefixed().thenTranslate("stats.title",
+                MessageTemplate.text(0).setColor(MCMessage.MessageColor.YELLOW)));
+    }
+
+    @Benchmark
+    public String serializeJson() {
+        return serializer.toJson(message, "de_de");
+    }
+
+    @Benchmark
+    public String serializeOptimizedJson() {
+        return serializer.toJson(optimized, "de_de");
+    }
+
+    @Benchmark
+    public String serializeCompactJson() {
+        return serializer.toCompactJson(message, "de_de");
+    }
+
+    @Benchmark
+    public String serializeCompactTemplateJson() {
+        return serializer.toCompactJson(template, "de_de", "Steve");
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MCMessageBenchmark {
+
+    private String playerName;
+    private MessageTemplate prefixedTranslationTemplate;
+
+    @Setup
+    public void setUp() {
+        playerName = "Steve";
+        prefixedTranslationTemplate = MessageTemplate.of(MCMessage.prefixed().thenTranslate("stats.title",
+                MessageTemplate.text(0).setColor(MCMessage.MessageColor.YELLOW)));
+    }
+
+    @Benchmark
+    public MCMessage prefixed() {
+        return MCMessage.prefixed();
+    }
+
+    @Benchmark
+    public MCMessage error() {
+        return MCMessage.error();
+    }
+
+    @Benchmark
+    public MCMessage prefixedTranslation() {
+        return MCMessage.prefixed().thenTranslate("stats.title",
+                MCMessage.blank().setColor(MCMessage.MessageColor.YELLOW).text(playerName));
+    }
+
+    @Benchmark
+    public MCMessage prefixedTranslationTemplate() {
+        return prefixedTranslationTemplate.create(playerName);
+    }
+
+    @Benchmark
+    public MCMessage optimizePrefixedTranslation() {
+        return MessageOptimizer.optimize(prefixedTranslation());
+    }
+
+    @Benchmark
+    public MCMessage errorTranslation() {
+        return MCMessage.error().thenTranslate("netlang.error");
+    }
+}
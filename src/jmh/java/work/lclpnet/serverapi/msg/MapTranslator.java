@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import work.lclpnet.translations.Translator;
+
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.Map;
+
+class MapTranslator implements Translator {
+
+    private final Map<String, Map<String, String>> translations = new HashMap<>();
+
+    void put(String language, String key, String value) {
+        translations.computeIfAbsent(language, lang -> new HashMap<>()).put(key, value);
+    }
+
+    @Override
+    public String translate(String locale, String key) {
+        Map<String, String> language = translations.get(locale);
+        if (language == null) return key;
+
+        return language.getOrDefault(key, key);
+    }
+
+    @Override
+    public String translate(String locale, String key, Object... substitutes) {
+        return String.format(translate(locale, key), substitutes);
+    }
+
+    @Override
+    public boolean hasTranslation(String locale, String key) {
+        Map<String, String> language = translations.get(locale);
+        return language != null && language.containsKey(key);
+    }
+
+    @Override
+    public SimpleDateFormat getDateFormat(String locale) {
+        return new SimpleDateFormat();
+    }
+
+    @Override
+    public Iterable<String> getLanguages() {
+        return translations.keySet();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.*;
+import work.lclpnet.lclpnetwork.facade.MCPlayer;
+import work.lclpnet.serverapi.util.ServerCache;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServerTranslationsBenchmark {
+
+    private ServerTranslations translations;
+    private String cachedPlayer, unknownPlayer;
+
+    @Setup
+    public void setUp() {
+        ServerCache cache = new ServerCache();
+
+        cachedPlayer = UUID.randomUUID().toString();
+        unknownPlayer = UUID.randomUUID().toString();
+
+        JsonObject player = new JsonObject();
+        player.addProperty("uuid", cachedPlayer);
+        player.addProperty("language", "de_de");
+        cache.cachePlayer(MCPlayer.cast(player, MCPlayer.class));
+
+        MapTranslator translator = new MapTranslator();
+        translator.put("en_us", "stats.title", "Stats of %s");
+        translator.put("de_de", "stats.title", "Statistiken von %s");
+        translator.put("en_us", "netlang.error", "An error occurred.");
+        translator.put("de_de", "netlang.error", "Ein Fehler ist aufgetreten.");
+
+        translations = new ServerTranslations(cache, translator, () -> CompletableFuture.completedFuture(null));
+    }
+
+    @Benchmark
+    public String preferredLanguage() {
+        return translations.getTranslation(cachedPlayer, "en_us", "netlang.error");
+    }
+
+    @Benchmark
+    public String fallbackLanguage() {
+        return translations.getTranslation(unknownPlayer, "en_us", "netlang.error");
+    }
+
+    @Benchmark
+    public String withSubstitutes() {
+        return translations.getTranslation(cachedPlayer, "en_us", "stats.title", "Steve");
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatMapBenchmark {
+
+    private static final int PLAYERS = 64;
+
+    private IntStatMap stats;
+    private String[] uuids;
+    private int index = 0;
+
+    @Setup
+    public void setUp() {
+        stats = new IntStatMap(new HashSet<>(Arrays.asList("kills", "deaths", "wins")));
+        uuids = new String[PLAYERS];
+
+        for (int i = 0; i < PLAYERS; i++) {
+            uuids[i] = UUID.randomUUID().toString();
+        }
+    }
+
+    private String nextUuid() {
+        return uuids[index++ & (PLAYERS - 1)];
+    }
+
+    @Benchmark
+    public void increment() {
+        stats.increment("kills", nextUuid());
+    }
+
+    @Benchmark
+    public void increase() {
+        stats.increase("wins", nextUuid(), 3);
+    }
+
+    @Benchmark
+    public void set() {
+        stats.set("deaths", nextUuid(), index);
+    }
+
+    @Benchmark
+    public Object get() {
+        return stats.get("kills", nextUuid());
+    }
+}
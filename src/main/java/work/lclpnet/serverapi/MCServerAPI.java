@@ -6,11 +6,13 @@
 
 package work.lclpnet.serverapi;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
 import work.lclpnet.lclpnetwork.api.APIAccess;
 import work.lclpnet.lclpnetwork.api.APIError;
+import work.lclpnet.lclpnetwork.api.APIException;
+import work.lclpnet.lclpnetwork.api.APIResponse;
 import work.lclpnet.lclpnetwork.api.ResponseEvaluationException;
 import work.lclpnet.lclpnetwork.api.annotation.AuthRequired;
 import work.lclpnet.lclpnetwork.api.annotation.Scopes;
@@ -18,22 +20,443 @@ import work.lclpnet.lclpnetwork.ext.LCLPMinecraftAPI;
 import work.lclpnet.lclpnetwork.facade.MCPlayer;
 import work.lclpnet.lclpnetwork.util.JsonBuilder;
 import work.lclpnet.serverapi.api.*;
+import work.lclpnet.serverapi.jfr.EventSpan;
+import work.lclpnet.serverapi.jfr.FlightEvents;
+import work.lclpnet.serverapi.net.AccessTransport;
+import work.lclpnet.serverapi.net.ApiRequest;
+import work.lclpnet.serverapi.net.ApiTransport;
+import work.lclpnet.serverapi.net.Deadlines;
+import work.lclpnet.serverapi.net.OfflineQueue;
+import work.lclpnet.serverapi.net.RequestPipeline;
+import work.lclpnet.serverapi.net.RequestPriority;
+import work.lclpnet.serverapi.net.ResponseReader;
+import work.lclpnet.serverapi.net.UnsupportedEndpointException;
+import work.lclpnet.serverapi.util.Futures;
 import work.lclpnet.serverapi.util.ServerCache;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class MCServerAPI extends LCLPMinecraftAPI {
 
+    /**
+     * The default timeout of requests, in seconds.
+     */
+    public static final long DEFAULT_TIMEOUT_SECONDS = 30L;
+
+    private static final String LAST_SEEN_BATCH_ENDPOINT = "api/mc/admin/update-last-seen-batch";
+    private static final String COIN_TRANSACTIONS_ENDPOINT = "api/mc/admin/make-coin-transactions";
+    /* endpoints that were unknown to the backend are tried again after this time, e.g. after the backend was updated */
+    private static final long UNSUPPORTED_RETRY_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private static final TypeAdapter<String> STRING_ADAPTER = ResponseReader.adapter(String.class);
+    private static final TypeAdapter<MCPlayer> PLAYER_ADAPTER = ResponseReader.adapter(MCPlayer.class);
+    private static final TypeAdapter<TransactionResult> TRANSACTION_RESULT_ADAPTER = ResponseReader.adapter(TransactionResult.class);
+
+    private final RequestPipeline pipeline;
+    private volatile long timeoutNanos;
+    @Nullable
+    private volatile Executor completionExecutor;
+    @Nullable
+    private volatile RequestPriority priority = null;
+    @Nullable
+    private volatile OfflineQueue offlineQueue = null;
+    /* unsupported endpoints, mapped to the System.nanoTime() they were found to be unsupported at */
+    private final Map<String, Long> unsupportedEndpoints;
+    private final List<StatIncrementListener> incrementListeners;
+
     /**
      * Construct a new MCServerAPI object.
      *
      * @param access The API accessor to use.
      */
     public MCServerAPI(APIAccess access) {
+        this(access, new AccessTransport(access));
+    }
+
+    /**
+     * Construct a new MCServerAPI object with a custom transport.
+     *
+     * @param access    The API accessor to use for the requests inherited from {@link LCLPMinecraftAPI}.
+     * @param transport The transport to send the requests of this class with.
+     */
+    public MCServerAPI(APIAccess access, ApiTransport transport) {
+        this(access, new RequestPipeline(transport), TimeUnit.SECONDS.toNanos(DEFAULT_TIMEOUT_SECONDS), null);
+    }
+
+    protected MCServerAPI(APIAccess access, RequestPipeline pipeline, long timeoutNanos, @Nullable Executor completionExecutor) {
+        this(access, pipeline, timeoutNanos, completionExecutor, new ConcurrentHashMap<>(), new CopyOnWriteArrayList<>());
+    }
+
+    private MCServerAPI(APIAccess access, RequestPipeline pipeline, long timeoutNanos, @Nullable Executor completionExecutor,
+                        Map<String, Long> unsupportedEndpoints, List<StatIncrementListener> incrementListeners) {
         super(access);
+        this.pipeline = pipeline;
+        this.timeoutNanos = timeoutNanos;
+        this.completionExecutor = completionExecutor;
+        this.unsupportedEndpoints = unsupportedEndpoints;
+        this.incrementListeners = incrementListeners;
+    }
+
+    /**
+     * Creates a view of another instance, sharing its request pipeline and settings.
+     *
+     * @param parent The instance to create a view of.
+     */
+    protected MCServerAPI(MCServerAPI parent) {
+        this(parent.getAPIAccess(), parent.pipeline, parent.timeoutNanos, parent.completionExecutor, parent.unsupportedEndpoints,
+                parent.incrementListeners);
+        this.priority = parent.priority;
+        this.offlineQueue = parent.offlineQueue;
+    }
+
+    /**
+     * Gets the request pipeline, which all requests of this class are passed through.
+     * It can be used to add {@link work.lclpnet.serverapi.net.ApiInterceptor}s or to replace the transport.
+     *
+     * @return The request pipeline.
+     */
+    public RequestPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * @param unit The unit to convert the timeout to.
+     * @return The timeout of requests made with this instance, or 0, if there is none.
+     */
+    public long getTimeout(TimeUnit unit) {
+        return unit.convert(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets the timeout of requests made with this instance.
+     * Futures of requests that exceed the timeout are completed with a {@link java.util.concurrent.TimeoutException}.
+     *
+     * @param timeout The timeout, or 0 for no timeout.
+     * @param unit    The unit of the timeout.
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0L) throw new IllegalArgumentException("The timeout must not be negative");
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Creates a view of this instance with another timeout.
+     * The view shares the request pipeline with this instance, which makes it cheap to create per call.
+     *
+     * @param timeout The timeout, or 0 for no timeout.
+     * @param unit    The unit of the timeout.
+     * @return A new MCServerAPI instance with the given timeout.
+     */
+    public MCServerAPI withTimeout(long timeout, TimeUnit unit) {
+        MCServerAPI view = new MCServerAPI(this);
+        view.setTimeout(timeout, unit);
+        return view;
+    }
+
+    @Nullable
+    public Executor getCompletionExecutor() {
+        return completionExecutor;
+    }
+
+    /**
+     * Sets the executor on which the futures returned by this instance are completed.
+     * Dependent stages, like {@code thenApply}, then run on that executor, e.g. a tick-synchronised main thread executor.
+     *
+     * @param executor The executor, or null to complete futures on the thread that received the response.
+     */
+    public void setCompletionExecutor(@Nullable Executor executor) {
+        this.completionExecutor = executor;
+    }
+
+    /**
+     * Creates a view of this instance with another completion executor.
+     * The view shares the request pipeline with this instance.
+     *
+     * @param executor The executor, or null to complete futures on the thread that received the response.
+     * @return A new MCServerAPI instance with the given completion executor.
+     * @see #setCompletionExecutor(Executor)
+     */
+    public MCServerAPI withCompletionExecutor(@Nullable Executor executor) {
+        MCServerAPI view = new MCServerAPI(this);
+        view.setCompletionExecutor(executor);
+        return view;
+    }
+
+    /**
+     * Creates a view of this instance, whose requests all have the given priority class.
+     * Without a view, interactive endpoints use {@link RequestPriority#INTERACTIVE} and bulk endpoints, like
+     * {@link #incrementStat(String, Iterable)} or {@link #updateLastPlayed(String, Iterable)}, use {@link RequestPriority#BACKGROUND}.
+     *
+     * @param priority The priority class.
+     * @return A new MCServerAPI instance with the given priority.
+     * @see work.lclpnet.serverapi.net.PriorityTransport
+     */
+    public MCServerAPI withPriority(RequestPriority priority) {
+        MCServerAPI view = new MCServerAPI(this);
+        view.priority = Objects.requireNonNull(priority);
+        return view;
+    }
+
+    /**
+     * @return The queue for mutations that could not be sent, or null, if there is none.
+     */
+    @Nullable
+    public OfflineQueue getOfflineQueue() {
+        return offlineQueue;
+    }
+
+    /**
+     * Sets a queue for mutations that could not be sent, because the backend was unreachable.
+     * If set, {@link #incrementStat(String, Iterable)}, {@link #updateLastSeen(String, ServerCache)},
+     * {@link #updateLastSeen(Iterable, ServerCache)}, {@link #updateLastPlayed(String, Iterable)} and
+     * {@link #setPreferredLanguage(String, String)} are queued instead of failing with {@link APIException#NO_CONNECTION}.
+     * Their futures are then completed with a deferred result, which is documented on each method.
+     * The queue is drained, once a request of this instance succeeds again.
+     *
+     * @param queue The queue, or null to disable queueing.
+     */
+    public void setOfflineQueue(@Nullable OfflineQueue queue) {
+        this.offlineQueue = queue;
+    }
+
+    /**
+     * Adds a listener, which is notified about the increments sent with {@link #incrementStat(String, Iterable)}.
+     * Listeners are shared with the views of this instance, e.g. {@link #withTimeout(long, TimeUnit)}.
+     *
+     * @param listener The listener.
+     * @see work.lclpnet.serverapi.util.LeaderboardCache
+     */
+    public void addIncrementListener(StatIncrementListener listener) {
+        incrementListeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * @param listener The listener to remove.
+     * @return True, if the listener was registered.
+     */
+    public boolean removeIncrementListener(StatIncrementListener listener) {
+        return incrementListeners.remove(listener);
+    }
+
+    /**
+     * Applies the timeout of this instance to a future.
+     * This is useful for requests inherited from {@link LCLPMinecraftAPI}, which do not pass through the pipeline.
+     *
+     * @param future The future.
+     * @param <T>    The type of the future.
+     * @return The same future.
+     */
+    public <T> CompletableFuture<T> withDeadline(CompletableFuture<T> future) {
+        return Deadlines.apply(future, timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Executes a request through the {@link RequestPipeline} of this instance.
+     *
+     * @param request The request to execute.
+     * @return A completable future that will contain the response.
+     */
+    protected CompletableFuture<APIResponse> execute(ApiRequest request) {
+        return pipeline.execute(request);
+    }
+
+    /**
+     * Executes a request and handles its response.
+     * The returned future is subject to the timeout of this instance.
+     * If it is cancelled or times out, the request future of the transport is cancelled as well.
+     *
+     * @param request The request to execute.
+     * @param handler A function that evaluates the response.
+     * @param <T>     The type of the result.
+     * @return A completable future that will contain the result of the handler.
+     */
+    protected <T> CompletableFuture<T> call(ApiRequest request, Function<APIResponse, T> handler) {
+        request = prepare(request);
+        final long timeout = request.getTimeoutNanos();
+
+        final EventSpan span = FlightEvents.beginRequest(request.getMethod(), request.getPath());
+        CompletableFuture<APIResponse> response = execute(request);
+        // the deadline is applied before the completion is moved to the executor, so that timeouts are completed there as well
+        CompletableFuture<APIResponse> timed = timeout > 0L
+                ? Deadlines.propagateCancellation(Deadlines.apply(response.thenApply(Function.identity()), timeout, TimeUnit.NANOSECONDS), response)
+                : response;
+        CompletableFuture<T> result = new CompletableFuture<>();
+        final Executor executor = completionExecutor;
+        final OfflineQueue queue = offlineQueue;
+
+        timed.whenComplete((resp, error) -> {
+            if (error != null) {
+                span.fail(Futures.unwrap(error));
+                complete(result, null, error, executor);
+                return;
+            }
+
+            span.end(resp.getResponseCode());
+
+            // the backend is reachable again
+            if (queue != null && queue.isOffline()) queue.drain();
+
+            // the response is evaluated on the receiving thread, only the completion is moved to the executor
+            T value;
+
+            try {
+                value = handler.apply(resp);
+            } catch (Throwable t) {
+                complete(result, null, t, executor);
+                return;
+            }
+
+            complete(result, value, null, executor);
+        });
+
+        Deadlines.propagateCancellation(result, response);
+
+        return result;
+    }
+
+    /**
+     * Executes a mutating request like {@link #call(ApiRequest, Function)}.
+     * If there is an {@link OfflineQueue} and the backend is {@link OfflineQueue#isUnavailable(Throwable) unavailable}, the request is queued instead
+     * and the returned future is completed with the deferred value.
+     * While the queue contains requests, the request is queued directly, so that it can't overtake older mutations.
+     *
+     * @param request  The request to execute.
+     * @param handler  A function that evaluates the response. It is also called for the response of the replayed request.
+     * @param deferred A supplier for the result, if the request was queued.
+     * @param <T>      The type of the result.
+     * @return A completable future that will contain the result of the handler or the deferred value.
+     */
+    protected <T> CompletableFuture<T> callDeferrable(ApiRequest request, Function<APIResponse, T> handler, Supplier<T> deferred) {
+        final OfflineQueue queue = offlineQueue;
+        if (queue == null) return call(request, handler);
+
+        final Executor executor = completionExecutor;
+        final ApiRequest prepared = prepare(request);
+
+        if (queue.isOffline() && queue.offer(prepared, handler::apply)) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            complete(result, deferred.get(), null, executor);
+            return result;
+        }
+
+        CompletableFuture<T> sent = call(request, handler);
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        // call() already moved the completion to the executor
+        sent.whenComplete((value, error) -> {
+            if (error == null) result.complete(value);
+            else if (OfflineQueue.isUnavailable(error) && queue.offer(prepared, handler::apply))
+                complete(result, deferred.get(), null, executor);
+            else result.completeExceptionally(error);
+        });
+
+        Deadlines.propagateCancellation(result, sent);
+
+        return result;
+    }
+
+    /**
+     * Sends a request to an endpoint, which might not be available on older backends.
+     * If the backend does not know the endpoint, the fallback is used instead, for this call and for the calls of the next minutes.
+     * Afterwards, the endpoint is tried again, since the backend might have been updated in the meantime.
+     * The handler of the request should check the response with {@link #checkSupported(ApiRequest, APIResponse)}.
+     *
+     * @param endpoint The path of the optional endpoint.
+     * @param request  A supplier for the request future.
+     * @param fallback A supplier for the future of the fallback, e.g. multiple calls to older endpoints.
+     * @param <T>      The type of the result.
+     * @return A completable future that will contain the result of the request or the fallback.
+     */
+    protected <T> CompletableFuture<T> callWithFallback(String endpoint, Supplier<CompletableFuture<T>> request,
+                                                        Supplier<CompletableFuture<T>> fallback) {
+        if (isUnsupported(endpoint)) return fallback.get();
+
+        CompletableFuture<T> sent = request.get();
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        sent.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+
+            if (!(Futures.unwrap(error) instanceof UnsupportedEndpointException)) {
+                result.completeExceptionally(error);
+                return;
+            }
+
+            CompletableFuture<T> replaced = fallback.get();
+
+            replaced.whenComplete((fallbackValue, fallbackError) -> {
+                if (fallbackError != null) result.completeExceptionally(fallbackError);
+                else result.complete(fallbackValue);
+            });
+
+            Deadlines.propagateCancellation(result, replaced);
+        });
+
+        Deadlines.propagateCancellation(result, sent);
+
+        return result;
+    }
+
+    /**
+     * Checks whether the backend knows the endpoint of a request.
+     * Unknown endpoints are remembered for a while, so that {@link #callWithFallback(String, Supplier, Supplier)} uses the fallback right away.
+     *
+     * @param request  The request.
+     * @param response The response to the request.
+     * @throws UnsupportedEndpointException If the backend responded with 404 Not Found.
+     */
+    protected void checkSupported(ApiRequest request, APIResponse response) {
+        if (response.getResponseCode() != 404) return;
+
+        unsupportedEndpoints.put(request.getPath(), System.nanoTime());
+        throw new UnsupportedEndpointException(request.getPath());
+    }
+
+    private boolean isUnsupported(String endpoint) {
+        Long since = unsupportedEndpoints.get(endpoint);
+        if (since == null) return false;
+
+        if (System.nanoTime() - since < UNSUPPORTED_RETRY_NANOS) return true;
+
+        unsupportedEndpoints.remove(endpoint, since);
+        return false;
+    }
+
+    private ApiRequest prepare(ApiRequest request) {
+        final long timeout = timeoutNanos;
+        if (timeout > 0L) request = request.withTimeout(timeout, TimeUnit.NANOSECONDS);
+
+        final RequestPriority forcedPriority = priority;
+        if (forcedPriority != null) request = request.withPriority(forcedPriority);
+
+        return request;
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, @Nullable T value, @Nullable Throwable error, @Nullable Executor executor) {
+        if (executor == null) {
+            // like thenApply, errors are reported wrapped in a CompletionException
+            if (error != null) future.completeExceptionally(error instanceof CompletionException ? error : new CompletionException(error));
+            else future.complete(value);
+            return;
+        }
+
+        executor.execute(() -> complete(future, value, error, null));
     }
 
     /**
@@ -46,7 +469,7 @@ public class MCServerAPI extends LCLPMinecraftAPI {
     @AuthRequired
     @Scopes("minecraft[admin]")
     public CompletableFuture<Boolean> isNetworkOperator(String playerUuid) {
-        return api.post("api/mc/admin/is-network-operator", JsonBuilder.object().set("uuid", playerUuid).createObject()).thenApply(resp -> {
+        return call(ApiRequest.post("api/mc/admin/is-network-operator", JsonBuilder.object().set("uuid", playerUuid).createObject()), resp -> {
             if (resp.getResponseCode() != 200) throw new ResponseEvaluationException(resp);
 
             JsonObject obj = resp.getResponseAs(JsonObject.class);
@@ -74,6 +497,8 @@ public class MCServerAPI extends LCLPMinecraftAPI {
      * Updates the last seen property of a {@link MCPlayer}.
      * If there is no MCPlayer with that UUID, it will be created.
      *
+     * If the update is queued by the {@link OfflineQueue}, the future contains the cached player instead.
+     *
      * @param playerUuid    The UUID of the {@link MCPlayer}.
      * @param cache An optional {@link ServerCache} instance to cache players to.
      * @return A completable future that will contain the player, or null, if there was an error.
@@ -81,9 +506,9 @@ public class MCServerAPI extends LCLPMinecraftAPI {
     @AuthRequired
     @Scopes("minecraft[admin]")
     public CompletableFuture<MCPlayer> updateLastSeen(String playerUuid, @Nullable ServerCache cache) {
-        return api.post("api/mc/admin/update-last-seen", JsonBuilder.object()
+        return callDeferrable(ApiRequest.post("api/mc/admin/update-last-seen", JsonBuilder.object()
                 .set("uuid", playerUuid)
-                .createObject()).thenApply(resp -> {
+                .createObject()), resp -> {
             if (resp.getResponseCode() != 200) throw new ResponseEvaluationException(resp);
 
             JsonObject obj = resp.getResponseAs(JsonObject.class);
@@ -97,6 +522,76 @@ public class MCServerAPI extends LCLPMinecraftAPI {
             }
 
             return player;
+        }, () -> cache != null ? cache.getPlayer(playerUuid) : null);
+    }
+
+    /**
+     * Updates the last seen property of multiple {@link MCPlayer}s with a single request.
+     * If there is no MCPlayer with one of the UUIDs, it will be created.
+     * If the update is queued by the {@link OfflineQueue}, the future contains the cached players instead.
+     * Backends without the batch endpoint are sent one {@link #updateLastSeen(String, ServerCache)} request per player instead.
+     *
+     * @param playerUuids The UUIDs of the {@link MCPlayer}s.
+     * @param cache       An optional {@link ServerCache} instance to cache players to.
+     * @return A completable future that will contain the updated players.
+     * @see work.lclpnet.serverapi.batch.LastSeenBatcher
+     */
+    @AuthRequired
+    @Scopes("minecraft[admin]")
+    public CompletableFuture<List<MCPlayer>> updateLastSeen(Iterable<String> playerUuids, @Nullable ServerCache cache) {
+        final List<String> list = new ArrayList<>();
+        playerUuids.forEach(list::add);
+
+        final ApiRequest request = ApiRequest.post(LAST_SEEN_BATCH_ENDPOINT, JsonBuilder.object()
+                .beginArray("players").addAll(list).endArray()
+                .createObject()).withPriority(RequestPriority.BACKGROUND);
+
+        return callWithFallback(LAST_SEEN_BATCH_ENDPOINT,
+                () -> updateLastSeenBatch(request, list, cache),
+                () -> updateLastSeenEach(list, cache));
+    }
+
+    private CompletableFuture<List<MCPlayer>> updateLastSeenBatch(ApiRequest request, List<String> playerUuids, @Nullable ServerCache cache) {
+        return callDeferrable(request, resp -> {
+            checkSupported(request, resp);
+            if (resp.getResponseCode() != 200) throw new ResponseEvaluationException(resp);
+
+            List<MCPlayer> players = ResponseReader.readListProperty(resp, "players", PLAYER_ADAPTER);
+
+            if (cache != null) {
+                players.forEach(cache::cachePlayer);
+            }
+
+            return players;
+        }, () -> {
+            List<MCPlayer> cached = new ArrayList<>();
+            if (cache == null) return cached;
+
+            for (String uuid : playerUuids) {
+                MCPlayer player = cache.getPlayer(uuid);
+                if (player != null) cached.add(player);
+            }
+
+            return cached;
+        });
+    }
+
+    private CompletableFuture<List<MCPlayer>> updateLastSeenEach(List<String> playerUuids, @Nullable ServerCache cache) {
+        List<CompletableFuture<MCPlayer>> futures = new ArrayList<>(playerUuids.size());
+
+        for (String uuid : playerUuids) {
+            futures.add(updateLastSeen(uuid, cache));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(nil -> {
+            List<MCPlayer> players = new ArrayList<>(futures.size());
+
+            for (CompletableFuture<MCPlayer> future : futures) {
+                MCPlayer player = future.join();
+                if (player != null) players.add(player);
+            }
+
+            return players;
         });
     }
 
@@ -116,11 +611,11 @@ public class MCServerAPI extends LCLPMinecraftAPI {
     @AuthRequired
     @Scopes("minecraft[admin]")
     public CompletableFuture<Boolean> processMCLinkToken(String playerUuid, String token) {
-        return api.post("api/mc/admin/process-mclink-token", JsonBuilder.object()
+        return call(ApiRequest.post("api/mc/admin/process-mclink-token", JsonBuilder.object()
                         .set("mcUuid", playerUuid)
                         .set("token", token)
-                        .createObject())
-                .thenApply(resp -> {
+                        .createObject()),
+                resp -> {
                     if (resp.getResponseCode() != 201) throw new ResponseEvaluationException(resp);
                     else return true;
                 });
@@ -137,9 +632,9 @@ public class MCServerAPI extends LCLPMinecraftAPI {
     @AuthRequired
     @Scopes("minecraft[admin]")
     public CompletableFuture<MCLinkResponse> requestMCLinkReverseToken(String uuid) {
-        return api.post("api/mc/admin/request-mclink-reverse-token", JsonBuilder.object()
+        return call(ApiRequest.post("api/mc/admin/request-mclink-reverse-token", JsonBuilder.object()
                 .set("uuid", uuid)
-                .createObject()).thenApply(resp -> {
+                .createObject()), resp -> {
             if (resp.getResponseCode() == 422 && resp.hasValidationViolations()) {
                 APIError error = resp.getValidationViolations();
                 if (error.has("uuid", "The uuid has already been taken."))
@@ -160,18 +655,29 @@ public class MCServerAPI extends LCLPMinecraftAPI {
      *
      * @param statType     The type of stat to increment. E.g. 'currency'.
      * @param transactions A list of increment transactions to send.
-     * @return A completable future that will contain the {@link IncrementResult}.
+     * @return A completable future that will contain the {@link IncrementResult}, which is {@link IncrementResult#isDeferred()}, if it was queued by the {@link OfflineQueue}.
      */
     @AuthRequired
     @Scopes("minecraft[admin]")
     public CompletableFuture<IncrementResult> incrementStat(String statType, Iterable<IncrementTransaction> transactions) {
-        return api.post("api/mc/admin/increment-stat", JsonBuilder.object()
+        final List<IncrementTransaction> list = new ArrayList<>();
+        transactions.forEach(list::add);
+
+        if (!incrementListeners.isEmpty()) {
+            final List<IncrementTransaction> view = Collections.unmodifiableList(list);
+
+            for (StatIncrementListener listener : incrementListeners) {
+                listener.onIncrement(statType, view);
+            }
+        }
+
+        return callDeferrable(ApiRequest.post("api/mc/admin/increment-stat", JsonBuilder.object()
                 .set("statType", statType)
-                .beginArray("transactions").addAll(transactions).endArray()
-                .createObject()).thenApply(resp -> {
+                .beginArray("transactions").addAll(list).endArray()
+                .createObject()).withPriority(RequestPriority.BACKGROUND), resp -> {
             if (resp.getResponseCode() != 200) throw new ResponseEvaluationException(resp);
             else return resp.getResponseAs(IncrementResult.class);
-        });
+        }, IncrementResult::deferred);
     }
 
     /**
@@ -194,14 +700,10 @@ public class MCServerAPI extends LCLPMinecraftAPI {
     @AuthRequired
     @Scopes("minecraft[admin]")
     public CompletableFuture<List<String>> getRegisteredLanguages() {
-        return api.get("api/mc/admin/get-registered-languages").thenApply(resp -> {
+        return call(ApiRequest.get("api/mc/admin/get-registered-languages"), resp -> {
             if (resp.getResponseCode() != 200) throw new ResponseEvaluationException(resp);
 
-            JsonArray arr = resp.getResponseAs(JsonArray.class);
-            List<String> languages = new ArrayList<>();
-            arr.forEach(elem -> languages.add(elem.getAsString()));
-
-            return languages;
+            return ResponseReader.readList(resp, STRING_ADAPTER);
         });
     }
 
@@ -210,19 +712,19 @@ public class MCServerAPI extends LCLPMinecraftAPI {
      *
      * @param uuid The player UUID.
      * @param lang A registered language to prefer.
-     * @return A completable future that will contain the result.
+     * @return A completable future that will contain the result. It is also true, if the change was queued by the {@link OfflineQueue}.
      */
     @AuthRequired
     @Scopes("minecraft[admin]")
     public CompletableFuture<Boolean> setPreferredLanguage(String uuid, String lang) {
-        return api.post("api/mc/admin/set-preferred-language", JsonBuilder.object()
+        return callDeferrable(ApiRequest.post("api/mc/admin/set-preferred-language", JsonBuilder.object()
                 .set("uuid", uuid)
                 .set("lang", lang)
                 .createObject()
-        ).thenApply(resp -> {
+        ), resp -> {
             if (resp.getResponseCode() != 200) throw new ResponseEvaluationException(resp);
             else return true;
-        });
+        }, () -> true);
     }
 
     /**
@@ -235,17 +737,13 @@ public class MCServerAPI extends LCLPMinecraftAPI {
     @AuthRequired
     @Scopes("minecraft[admin]")
     public CompletableFuture<List<MCPlayer>> getPlayersRankedBy(String property, int amount) {
-        return api.post("api/mc/admin/get-players-ranked", JsonBuilder.object()
+        return call(ApiRequest.post("api/mc/admin/get-players-ranked", JsonBuilder.object()
                 .set("property", property)
                 .set("amount", amount)
-                .createObject()).thenApply(resp -> {
+                .createObject()), resp -> {
             if (resp.getResponseCode() != 200) throw new ResponseEvaluationException(resp);
 
-            JsonArray arr = resp.getResponseAs(JsonArray.class);
-            List<MCPlayer> players = new ArrayList<>();
-            arr.forEach(elem -> players.add(MCPlayer.cast(elem, MCPlayer.class)));
-
-            return players;
+            return ResponseReader.readList(resp, PLAYER_ADAPTER);
         });
     }
 
@@ -271,30 +769,104 @@ public class MCServerAPI extends LCLPMinecraftAPI {
 
         if (recipientUuid != null) builder.set("recipient_uuid", recipientUuid);
 
-        return api.post("api/mc/admin/make-coin-transaction", builder.createObject()).thenApply(resp -> {
+        return call(ApiRequest.post("api/mc/admin/make-coin-transaction", builder.createObject()), resp -> {
             if (resp.getResponseCode() != 200 && resp.getResponseCode() != 201)
                 throw new ResponseEvaluationException(resp);
             else return resp.getResponseAs(TransactionResult.class);
         });
     }
 
+    /**
+     * Makes multiple coin transactions with a single request.
+     * Backends without the batch endpoint are sent one {@link #makeCoinTransaction(String, String, int, String, boolean)}
+     * request per transaction instead, one after another. If one of those requests fails, its result is {@link TransactionResult#isError()}
+     * and the remaining transactions are {@link TransactionResult#isSkipped() skipped}, so that the caller knows which transactions were made.
+     *
+     * @param transactions The transactions to make.
+     * @return A completable future that will contain a {@link TransactionResult} per transaction, in the same order.
+     */
+    @AuthRequired
+    @Scopes("minecraft[admin]")
+    public CompletableFuture<List<TransactionResult>> makeCoinTransactions(Iterable<CoinTransaction> transactions) {
+        final List<CoinTransaction> list = new ArrayList<>();
+        transactions.forEach(list::add);
+
+        final ApiRequest request = ApiRequest.post(COIN_TRANSACTIONS_ENDPOINT, JsonBuilder.object()
+                .beginArray("transactions").addAll(list).endArray()
+                .createObject());
+
+        return callWithFallback(COIN_TRANSACTIONS_ENDPOINT, () -> call(request, resp -> {
+            checkSupported(request, resp);
+
+            if (resp.getResponseCode() != 200 && resp.getResponseCode() != 201)
+                throw new ResponseEvaluationException(resp);
+
+            List<TransactionResult> results = ResponseReader.readListProperty(resp, "results", TRANSACTION_RESULT_ADAPTER);
+
+            // results are matched to the transactions by index
+            if (results.size() != list.size()) throw new ResponseEvaluationException(resp);
+
+            return results;
+        }), () -> makeCoinTransactionsEach(list));
+    }
+
+    private CompletableFuture<List<TransactionResult>> makeCoinTransactionsEach(List<CoinTransaction> transactions) {
+        CompletableFuture<List<TransactionResult>> future = CompletableFuture.completedFuture(new ArrayList<>(transactions.size()));
+
+        // sequentially, so that the transactions are made in order
+        for (CoinTransaction transaction : transactions) {
+            future = future.thenCompose(results -> {
+                // once a request failed, the backend is likely unavailable, so the remaining transactions are not sent
+                if (!results.isEmpty()) {
+                    TransactionResult last = results.get(results.size() - 1);
+
+                    if (last.isError() || last.isSkipped()) {
+                        results.add(TransactionResult.skipped());
+                        return CompletableFuture.completedFuture(results);
+                    }
+                }
+
+                return makeCoinTransaction(transaction.getPayerUuid(), transaction.getRecipientUuid(),
+                        transaction.getAmount(), transaction.getItemName(), transaction.isItemNameTranslated())
+                        .handle((result, error) -> {
+                            results.add(error != null ? TransactionResult.error(String.valueOf(Futures.unwrap(error))) : result);
+                            return results;
+                        });
+            });
+        }
+
+        return future;
+    }
+
+    /**
+     * Makes multiple coin transactions with a single request.
+     *
+     * @param massTransaction A {@link MassCoinTransaction} instance containing the transactions.
+     * @return A completable future that will contain a {@link TransactionResult} per transaction, in the same order.
+     */
+    @AuthRequired
+    @Scopes("minecraft[admin]")
+    public CompletableFuture<List<TransactionResult>> makeCoinTransactions(MassCoinTransaction massTransaction) {
+        return makeCoinTransactions(massTransaction.getTransactions());
+    }
+
     /**
      * Updates the last played property of a given game for given players.
      *
      * @param statType    The game that should be updated.
      * @param playerUuids A list of players that should be updated.
-     * @return A completable future that will contain a {@link MassUpdateResult}.
+     * @return A completable future that will contain a {@link MassUpdateResult}, which is {@link MassUpdateResult#isDeferred()}, if it was queued by the {@link OfflineQueue}.
      */
     @AuthRequired
     @Scopes("minecraft[admin]")
     public CompletableFuture<MassUpdateResult> updateLastPlayed(String statType, Iterable<String> playerUuids) {
-        return api.post("api/mc/admin/update-last-played", JsonBuilder.object()
+        return callDeferrable(ApiRequest.post("api/mc/admin/update-last-played", JsonBuilder.object()
                 .set("statType", statType)
                 .beginArray("players").addAll(playerUuids).endArray()
-                .createObject()).thenApply(resp -> {
+                .createObject()).withPriority(RequestPriority.BACKGROUND), resp -> {
             if (resp.getResponseCode() != 200) throw new ResponseEvaluationException(resp);
             else return resp.getResponseAs(MassUpdateResult.class);
-        });
+        }, MassUpdateResult::deferred);
     }
 
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi;
+
+import work.lclpnet.lclpnetwork.facade.MCPlayer;
+import work.lclpnet.serverapi.api.*;
+import work.lclpnet.serverapi.util.Futures;
+import work.lclpnet.serverapi.util.ServerCache;
+import work.lclpnet.serverapi.util.TaskExecutors;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * A blocking facade over {@link MCServerAPI}, meant to be used from virtual threads.
+ * Complex flows can be written as plain sequential code inside {@link #submit(Callable)}, which runs every task on its own thread.
+ * On Java 21 and later, those are virtual threads, so thousands of concurrent tasks don't require a thread pool.
+ * <br>
+ * Methods of this class rethrow the cause of failed requests, e.g. an {@link work.lclpnet.lclpnetwork.api.APIException}.
+ */
+public class SyncMCServerAPI implements AutoCloseable {
+
+    private final MCServerAPI api;
+    private final ExecutorService executor;
+
+    public SyncMCServerAPI(MCServerAPI api) {
+        this(api, TaskExecutors.newPerTaskExecutor("MCServerAPI-Task"));
+    }
+
+    public SyncMCServerAPI(MCServerAPI api, ExecutorService executor) {
+        this.api = Objects.requireNonNull(api);
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    public MCServerAPI getAsync() {
+        return api;
+    }
+
+    /**
+     * Runs a task on its own (virtual) thread.
+     *
+     * @param task The task, which may use the blocking methods of this class.
+     * @param <T>  The result type.
+     * @return A completable future that will contain the result of the task.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        Objects.requireNonNull(task);
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        Future<?> running = executor.submit(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+
+        // interrupt the task, if the future is cancelled
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) running.cancel(true);
+        });
+
+        return future;
+    }
+
+    /**
+     * Waits for a future to complete.
+     * This can be used for any request, including those inherited from {@link work.lclpnet.lclpnetwork.ext.LCLPMinecraftAPI}.
+     *
+     * @param future The future.
+     * @param <T>    The type of the future.
+     * @return The result of the future.
+     * @throws CancellationException If the future was cancelled, or the waiting thread was interrupted.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new CancellationException("Interrupted while waiting for a request");
+        } catch (ExecutionException e) {
+            Throwable cause = Futures.unwrap(e);
+
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * @see MCServerAPI#isNetworkOperator(String)
+     */
+    public Boolean isNetworkOperator(String playerUuid) {
+        return await(api.isNetworkOperator(playerUuid));
+    }
+
+    /**
+     * @see MCServerAPI#getMCPlayerByUUID(String)
+     */
+    public MCPlayer getMCPlayerByUUID(String playerUuid) {
+        return await(api.withDeadline(api.getMCPlayerByUUID(playerUuid)));
+    }
+
+    /**
+     * @see MCServerAPI#updateLastSeen(String, ServerCache)
+     */
+    public MCPlayer updateLastSeen(String playerUuid, @Nullable ServerCache cache) {
+        return await(api.updateLastSeen(playerUuid, cache));
+    }
+
+    /**
+     * @see MCServerAPI#updateLastSeen(Iterable, ServerCache)
+     */
+    public List<MCPlayer> updateLastSeen(Iterable<String> playerUuids, @Nullable ServerCache cache) {
+        return await(api.updateLastSeen(playerUuids, cache));
+    }
+
+    /**
+     * @see MCServerAPI#processMCLinkToken(String, String)
+     */
+    public Boolean processMCLinkToken(String playerUuid, String token) {
+        return await(api.processMCLinkToken(playerUuid, token));
+    }
+
+    /**
+     * @see MCServerAPI#requestMCLinkReverseToken(String)
+     */
+    public MCLinkResponse requestMCLinkReverseToken(String uuid) {
+        return await(api.requestMCLinkReverseToken(uuid));
+    }
+
+    /**
+     * @see MCServerAPI#incrementStat(String, Iterable)
+     */
+    public IncrementResult incrementStat(String statType, Iterable<IncrementTransaction> transactions) {
+        return await(api.incrementStat(statType, transactions));
+    }
+
+    /**
+     * @see MCServerAPI#incrementStat(MassIncrementTransaction)
+     */
+    public IncrementResult incrementStat(MassIncrementTransaction massTransaction) {
+        return await(api.incrementStat(massTransaction));
+    }
+
+    /**
+     * @see MCServerAPI#getRegisteredLanguages()
+     */
+    public List<String> getRegisteredLanguages() {
+        return await(api.getRegisteredLanguages());
+    }
+
+    /**
+     * @see MCServerAPI#setPreferredLanguage(String, String)
+     */
+    public Boolean setPreferredLanguage(String uuid, String lang) {
+        return await(api.setPreferredLanguage(uuid, lang));
+    }
+
+    /**
+     * @see MCServerAPI#getPlayersRankedBy(String, int)
+     */
+    public List<MCPlayer> getPlayersRankedBy(String property, int amount) {
+        return await(api.getPlayersRankedBy(property, amount));
+    }
+
+    /**
+     * @see MCServerAPI#makeCoinTransaction(String, String, int, String, boolean)
+     */
+    public TransactionResult makeCoinTransaction(String payerUuid, @Nullable String recipientUuid, int amount, String itemName, boolean itemNameTranslated) {
+        return await(api.makeCoinTransaction(payerUuid, recipientUuid, amount, itemName, itemNameTranslated));
+    }
+
+    /**
+     * @see MCServerAPI#makeCoinTransactions(MassCoinTransaction)
+     */
+    public List<TransactionResult> makeCoinTransactions(MassCoinTransaction massTransaction) {
+        return await(api.makeCoinTransactions(massTransaction));
+    }
+
+    /**
+     * @see MCServerAPI#updateLastPlayed(String, Iterable)
+     */
+    public MassUpdateResult updateLastPlayed(String statType, Iterable<String> playerUuids) {
+        return await(api.updateLastPlayed(statType, playerUuids));
+    }
+
+    /**
+     * Shuts down the executor of this facade. Running tasks are not interrupted.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
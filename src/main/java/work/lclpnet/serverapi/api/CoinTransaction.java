@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.api;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import work.lclpnet.lclpnetwork.facade.JsonSerializable;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+public class CoinTransaction extends JsonSerializable {
+
+    @Expose
+    @SerializedName("payer_uuid")
+    private final String payerUuid;
+    @Expose
+    @SerializedName("recipient_uuid")
+    @Nullable
+    private final String recipientUuid;
+    @Expose
+    private final int amount;
+    @Expose
+    @SerializedName("item_name")
+    private final String itemName;
+    @Expose
+    @SerializedName("is_name_translated")
+    private final boolean itemNameTranslated;
+
+    /**
+     * @param payerUuid          The UUID of the player who pays the coins.
+     * @param recipientUuid      The optional UUID of the player who receives the coins. If null, the coins will be payed to the server.
+     * @param amount             The amount of coins involved in this transaction.
+     * @param itemName           The title of the transaction. Can be a translation key, if the "itemNameTranslated" param is set to true.
+     * @param itemNameTranslated Whether the "itemName" is a translation key.
+     */
+    public CoinTransaction(String payerUuid, @Nullable String recipientUuid, int amount, String itemName, boolean itemNameTranslated) {
+        this.payerUuid = Objects.requireNonNull(payerUuid);
+        this.recipientUuid = recipientUuid;
+        this.amount = amount;
+        this.itemName = Objects.requireNonNull(itemName);
+        this.itemNameTranslated = itemNameTranslated;
+    }
+
+    public String getPayerUuid() {
+        return payerUuid;
+    }
+
+    @Nullable
+    public String getRecipientUuid() {
+        return recipientUuid;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public boolean isItemNameTranslated() {
+        return itemNameTranslated;
+    }
+}
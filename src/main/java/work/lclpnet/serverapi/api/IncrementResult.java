@@ -8,4 +8,19 @@ package work.lclpnet.serverapi.api;
 
 public class IncrementResult extends MassUpdateResult {
 
+    public IncrementResult() {
+    }
+
+    protected IncrementResult(String status, String message) {
+        super(status, message);
+    }
+
+    /**
+     * @return A new result for increments that were queued, because the backend was unreachable.
+     * @see work.lclpnet.serverapi.net.OfflineQueue
+     */
+    public static IncrementResult deferred() {
+        return new IncrementResult(STATUS_DEFERRED, DEFERRED_MESSAGE);
+    }
+
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.api;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class MassCoinTransaction {
+
+    protected final List<CoinTransaction> transactions = new ArrayList<>();
+
+    /**
+     * Adds a coin transaction.
+     *
+     * @param payerUuid          The UUID of the player who pays the coins.
+     * @param recipientUuid      The optional UUID of the player who receives the coins. If null, the coins will be payed to the server.
+     * @param amount             The amount of coins involved in this transaction.
+     * @param itemName           The title of the transaction. Can be a translation key, if the "itemNameTranslated" param is set to true.
+     * @param itemNameTranslated Whether the "itemName" is a translation key.
+     * @return The same instance.
+     */
+    public MassCoinTransaction add(String payerUuid, @Nullable String recipientUuid, int amount, String itemName, boolean itemNameTranslated) {
+        return add(new CoinTransaction(payerUuid, recipientUuid, amount, itemName, itemNameTranslated));
+    }
+
+    public MassCoinTransaction add(CoinTransaction transaction) {
+        transactions.add(Objects.requireNonNull(transaction));
+        return this;
+    }
+
+    /**
+     * @return The transactions, in the order the results will be returned.
+     */
+    public List<CoinTransaction> getTransactions() {
+        return transactions;
+    }
+
+    public boolean isEmpty() {
+        return transactions.isEmpty();
+    }
+}
@@ -13,6 +13,9 @@ import java.util.List;
 
 public class MassUpdateResult extends JsonSerializable {
 
+    public static final String STATUS_DEFERRED = "deferred";
+    public static final String DEFERRED_MESSAGE = "The backend is unreachable, the update was queued.";
+
     @Expose
     private String status;
     @Expose
@@ -20,6 +23,22 @@ public class MassUpdateResult extends JsonSerializable {
     @Expose
     private List<Error> errors;
 
+    public MassUpdateResult() {
+    }
+
+    protected MassUpdateResult(String status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    /**
+     * @return A new result for updates that were queued, because the backend was unreachable.
+     * @see work.lclpnet.serverapi.net.OfflineQueue
+     */
+    public static MassUpdateResult deferred() {
+        return new MassUpdateResult(STATUS_DEFERRED, DEFERRED_MESSAGE);
+    }
+
     public String getStatus() {
         return status;
     }
@@ -36,6 +55,13 @@ public class MassUpdateResult extends JsonSerializable {
         return "success".equals(this.status);
     }
 
+    /**
+     * @return True, if the update was queued to be sent later, because the backend was unreachable.
+     */
+    public boolean isDeferred() {
+        return STATUS_DEFERRED.equals(this.status);
+    }
+
     public static class Error extends JsonSerializable {
 
         @Expose
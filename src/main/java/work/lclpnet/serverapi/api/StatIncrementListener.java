@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.api;
+
+import java.util.List;
+
+/**
+ * Receives the stat increments sent with an {@link work.lclpnet.serverapi.MCServerAPI}.
+ *
+ * @see work.lclpnet.serverapi.MCServerAPI#addIncrementListener(StatIncrementListener)
+ */
+@FunctionalInterface
+public interface StatIncrementListener {
+
+    /**
+     * Called, when increments are sent to the backend, before the response was received.
+     * This is called on the thread that sends the increments, so implementations should return quickly.
+     *
+     * @param statType     The type of the incremented stat, e.g. 'currency'.
+     * @param transactions The increment transactions.
+     */
+    void onIncrement(String statType, List<IncrementTransaction> transactions);
+}
@@ -11,11 +11,48 @@ import work.lclpnet.lclpnetwork.facade.JsonSerializable;
 
 public class TransactionResult extends JsonSerializable {
 
+    public static final String MISSING_COINS_MESSAGE = "Specified payer does not have enough coins.";
+    /* statuses of local results, which the backend does not return */
+    public static final String STATUS_ERROR = "error", STATUS_SKIPPED = "skipped";
+
     @Expose
     private String status;
     @Expose
     private String message;
 
+    public TransactionResult() {
+    }
+
+    protected TransactionResult(String status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    /**
+     * @return A new result which is equal to the result of the backend, if the payer does not have enough coins.
+     */
+    public static TransactionResult failureMissingCoins() {
+        return new TransactionResult("failure", MISSING_COINS_MESSAGE);
+    }
+
+    /**
+     * Creates a local result for a transaction, whose request failed, e.g. because of a timeout.
+     * The backend might have made the transaction anyway.
+     *
+     * @param message A description of the failure.
+     * @return A new result with the status {@link #STATUS_ERROR}.
+     */
+    public static TransactionResult error(String message) {
+        return new TransactionResult(STATUS_ERROR, message);
+    }
+
+    /**
+     * @return A new local result for a transaction, that was not sent to the backend, because an earlier transaction failed.
+     */
+    public static TransactionResult skipped() {
+        return new TransactionResult(STATUS_SKIPPED, "The transaction was skipped, because an earlier transaction failed.");
+    }
+
     public String getStatus() {
         return status;
     }
@@ -28,8 +65,22 @@ public class TransactionResult extends JsonSerializable {
         return "success".equals(getStatus());
     }
 
+    /**
+     * @return True, if the request of the transaction failed. The transaction might have been made anyway.
+     */
+    public boolean isError() {
+        return STATUS_ERROR.equals(getStatus());
+    }
+
+    /**
+     * @return True, if the transaction was not sent to the backend.
+     */
+    public boolean isSkipped() {
+        return STATUS_SKIPPED.equals(getStatus());
+    }
+
     public boolean isFailureMissingCoins() {
-        return "failure".equals(getStatus()) && "Specified payer does not have enough coins.".equals(getMessage());
+        return "failure".equals(getStatus()) && MISSING_COINS_MESSAGE.equals(getMessage());
     }
 
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.batch;
+
+import work.lclpnet.lclpnetwork.api.ResponseEvaluationException;
+import work.lclpnet.serverapi.MCServerAPI;
+import work.lclpnet.serverapi.net.OfflineQueue;
+import work.lclpnet.serverapi.util.Futures;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accumulates "player X played Y" records and sends them as one deduplicated
+ * {@link MCServerAPI#updateLastPlayed(String, Iterable)} request per stat type, either periodically or when flushed manually.
+ * Implementations should call {@link #close()} when the server shuts down.
+ */
+public class LastPlayedAccumulator implements AutoCloseable {
+
+    private final MCServerAPI api;
+    private final Object lock = new Object();
+    private Map<String, UuidSet> played = new HashMap<>();
+    @Nullable
+    private ScheduledFuture<?> flushTask = null;
+
+    public LastPlayedAccumulator(MCServerAPI api) {
+        this.api = Objects.requireNonNull(api);
+    }
+
+    /**
+     * Records that a player played a game.
+     * Player UUIDs that are not valid are ignored.
+     *
+     * @param statType   The game that was played.
+     * @param playerUuid The UUID of the player.
+     */
+    public void record(String statType, String playerUuid) {
+        Objects.requireNonNull(statType);
+        Objects.requireNonNull(playerUuid);
+
+        synchronized (lock) {
+            played.computeIfAbsent(statType, type -> new UuidSet()).add(playerUuid);
+        }
+    }
+
+    /**
+     * Records that multiple players played a game.
+     * Player UUIDs that are not valid are ignored.
+     *
+     * @param statType    The game that was played.
+     * @param playerUuids The UUIDs of the players.
+     */
+    public void recordAll(String statType, Iterable<String> playerUuids) {
+        Objects.requireNonNull(statType);
+        Objects.requireNonNull(playerUuids);
+
+        synchronized (lock) {
+            UuidSet set = played.computeIfAbsent(statType, type -> new UuidSet());
+            playerUuids.forEach(set::add);
+        }
+    }
+
+    /**
+     * @param statType The game.
+     * @return The number of distinct players waiting to be sent for the game.
+     */
+    public int getPendingCount(String statType) {
+        synchronized (lock) {
+            UuidSet set = played.get(statType);
+            return set == null ? 0 : set.size();
+        }
+    }
+
+    /**
+     * Starts flushing the recorded players periodically.
+     *
+     * @param scheduler The scheduler to use.
+     * @param period    The period between flushes.
+     * @param unit      The unit of the period.
+     */
+    public void start(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+        synchronized (lock) {
+            if (flushTask != null) throw new IllegalStateException("Already started");
+            flushTask = scheduler.scheduleAtFixedRate(this::flush, period, period, unit);
+        }
+    }
+
+    /**
+     * Stops the periodic flushing, without flushing the pending records.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (flushTask == null) return;
+
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+    }
+
+    /**
+     * Sends one request per stat type with all recorded players.
+     * If a request fails with a transient error, e.g. a timeout or a server error, its players are recorded again,
+     * so that they are sent with the next flush. Requests that were rejected by the backend are not retried.
+     *
+     * @return A completable future that completes when all requests are done. It does not depend on the completion executor
+     * of the {@link MCServerAPI} and does not fail.
+     */
+    public CompletableFuture<Void> flush() {
+        final Map<String, UuidSet> batch;
+
+        synchronized (lock) {
+            if (played.isEmpty()) return CompletableFuture.completedFuture(null);
+
+            batch = played;
+            played = new HashMap<>();
+        }
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(batch.size());
+        final MCServerAPI sender = api.withCompletionExecutor(null);
+
+        batch.forEach((statType, players) -> {
+            if (players.isEmpty()) return;
+
+            List<String> uuids = players.toList();
+
+            futures.add(sender.updateLastPlayed(statType, uuids).handle((result, error) -> {
+                if (error != null && isTransient(error)) recordAll(statType, uuids);
+                return null;
+            }));
+        });
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Stops the periodic flushing, sends the pending records and waits until they are sent.
+     */
+    @Override
+    public void close() {
+        stop();
+        flush().join();
+    }
+
+    private static boolean isTransient(Throwable error) {
+        Throwable cause = Futures.unwrap(error);
+        if (OfflineQueue.isTransientFailure(cause)) return true;
+
+        if (!(cause instanceof ResponseEvaluationException)) return false;
+
+        int status = ((ResponseEvaluationException) cause).getResponse().getResponseCode();
+        return status >= 500 || status == 429;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.batch;
+
+import work.lclpnet.lclpnetwork.facade.MCPlayer;
+import work.lclpnet.serverapi.MCServerAPI;
+import work.lclpnet.serverapi.util.ServerCache;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects {@link MCServerAPI#updateLastSeen(String, ServerCache)} calls and sends them as one batch request per window.
+ * Concurrent calls for the same player are coalesced into a single entry, UUIDs are compared case-insensitively.
+ * This prevents request storms, e.g. when many players reconnect after a proxy restart.
+ * Implementations should call {@link #close()} when the server shuts down.
+ */
+public class LastSeenBatcher implements AutoCloseable {
+
+    private final MCServerAPI api;
+    @Nullable
+    private final ServerCache cache;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<MCPlayer>> pending = new LinkedHashMap<>();
+    @Nullable
+    private ScheduledFuture<?> flushTask = null;
+    private boolean closed = false;
+
+    /**
+     * @param api          The API instance to send the batches with.
+     * @param cache        An optional {@link ServerCache} instance to cache players to.
+     * @param scheduler    The scheduler to schedule batch flushes with.
+     * @param windowMillis The time in milliseconds to collect calls, before they are sent.
+     * @param maxBatchSize The maximum number of players per batch. Full batches are sent immediately.
+     */
+    public LastSeenBatcher(MCServerAPI api, @Nullable ServerCache cache, ScheduledExecutorService scheduler, long windowMillis, int maxBatchSize) {
+        if (windowMillis < 0L) throw new IllegalArgumentException("The window must not be negative");
+        if (maxBatchSize <= 0) throw new IllegalArgumentException("The max batch size must be greater than 0");
+
+        this.api = Objects.requireNonNull(api);
+        this.cache = cache;
+        this.scheduler = Objects.requireNonNull(scheduler);
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues a last seen update for a player.
+     * After the batcher was closed, updates are rejected; they can be sent with {@link MCServerAPI#updateLastSeen(String, ServerCache)} instead.
+     *
+     * @param playerUuid The UUID of the {@link MCPlayer}.
+     * @return A completable future that will contain the player, or null, if the player was missing in the response.
+     * It fails with an {@link IllegalStateException}, if the batcher is closed.
+     */
+    public CompletableFuture<MCPlayer> updateLastSeen(String playerUuid) {
+        final String uuid = normalize(Objects.requireNonNull(playerUuid));
+
+        boolean flushNow = false;
+        CompletableFuture<MCPlayer> future;
+
+        synchronized (lock) {
+            if (closed) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(new IllegalStateException("The batcher is closed"));
+                return future;
+            }
+
+            future = pending.get(uuid);
+            if (future != null) return future;
+
+            future = new CompletableFuture<>();
+            pending.put(uuid, future);
+
+            if (pending.size() >= maxBatchSize) {
+                flushNow = true;
+            } else if (flushTask == null) {
+                try {
+                    flushTask = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // the scheduler was shut down, the update would never be sent otherwise
+                    flushNow = true;
+                }
+            }
+        }
+
+        if (flushNow) flush();
+
+        return future;
+    }
+
+    /**
+     * @return The number of players waiting for the next batch.
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Sends all pending updates immediately.
+     * The futures of the updates are completed on the completion executor of the {@link MCServerAPI}, if there is one.
+     *
+     * @return A completable future that completes, when the response was received. It does not fail, errors are reported to the updates.
+     */
+    public CompletableFuture<Void> flush() {
+        final Map<String, CompletableFuture<MCPlayer>> batch;
+
+        synchronized (lock) {
+            if (flushTask != null) {
+                flushTask.cancel(false);
+                flushTask = null;
+            }
+
+            if (pending.isEmpty()) return CompletableFuture.completedFuture(null);
+
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        final Executor executor = api.getCompletionExecutor();
+
+        // the returned future must not depend on the completion executor, so that close() can wait for it on any thread
+        return api.withCompletionExecutor(null).updateLastSeen(new ArrayList<>(batch.keySet()), cache).handle((players, error) -> {
+            if (executor != null) executor.execute(() -> complete(batch, players, error));
+            else complete(batch, players, error);
+
+            return null;
+        });
+    }
+
+    /**
+     * Sends the pending updates and waits until they are done. Later updates are rejected.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+
+        flush().join();
+    }
+
+    private static void complete(Map<String, CompletableFuture<MCPlayer>> batch, @Nullable List<MCPlayer> players, @Nullable Throwable error) {
+        if (error != null) {
+            batch.values().forEach(future -> future.completeExceptionally(error));
+            return;
+        }
+
+        for (MCPlayer player : players) {
+            if (player.getUuid() == null) continue;
+
+            CompletableFuture<MCPlayer> future = batch.get(normalize(player.getUuid()));
+            if (future != null) future.complete(player);
+        }
+
+        // players that were not contained in the response
+        batch.values().forEach(future -> future.complete(null));
+    }
+
+    /**
+     * @param uuid The UUID.
+     * @return The UUID in its canonical form, lower case with dashes, or the lower case string, if it is not a valid UUID.
+     */
+    private static String normalize(String uuid) {
+        try {
+            return UUID.fromString(uuid).toString();
+        } catch (IllegalArgumentException e) {
+            return uuid.toLowerCase(Locale.ROOT);
+        }
+    }
+}
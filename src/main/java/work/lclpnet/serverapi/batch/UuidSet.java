@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.batch;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A compact set of UUIDs.
+ * The UUIDs are stored as two longs in an open addressing table, instead of one String object per entry.
+ * This class is not thread-safe.
+ */
+public class UuidSet {
+
+    private static final float LOAD_FACTOR = 0.6F;
+
+    private long[] table;
+    private int size = 0;
+    private boolean containsNil = false;
+
+    public UuidSet() {
+        this(16);
+    }
+
+    public UuidSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize) capacity <<= 1;
+
+        this.table = new long[capacity * 2];
+    }
+
+    /**
+     * Adds an UUID to this set.
+     *
+     * @param uuid The UUID, with dashes.
+     * @return True, if the UUID was not contained before. False, if it was contained or is not a valid UUID.
+     */
+    public boolean add(String uuid) {
+        UUID parsed = parse(uuid);
+        return parsed != null && add(parsed);
+    }
+
+    public boolean add(UUID uuid) {
+        long msb = uuid.getMostSignificantBits(), lsb = uuid.getLeastSignificantBits();
+
+        // (0, 0) marks free slots, so the nil UUID is tracked separately
+        if (msb == 0L && lsb == 0L) {
+            if (containsNil) return false;
+
+            containsNil = true;
+            size++;
+            return true;
+        }
+
+        if (insert(table, msb, lsb)) {
+            if (++size > (table.length / 2) * LOAD_FACTOR) grow();
+            return true;
+        }
+
+        return false;
+    }
+
+    public boolean contains(String uuid) {
+        UUID parsed = parse(uuid);
+        if (parsed == null) return false;
+
+        long msb = parsed.getMostSignificantBits(), lsb = parsed.getLeastSignificantBits();
+
+        if (msb == 0L && lsb == 0L) return containsNil;
+
+        int mask = (table.length / 2) - 1;
+
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            long m = table[slot * 2], l = table[slot * 2 + 1];
+
+            if (m == 0L && l == 0L) return false;
+            if (m == msb && l == lsb) return true;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return A list of all contained UUIDs, as strings with dashes.
+     */
+    public List<String> toList() {
+        List<String> list = new ArrayList<>(size);
+
+        if (containsNil) list.add(new UUID(0L, 0L).toString());
+
+        for (int i = 0; i < table.length; i += 2) {
+            long msb = table[i], lsb = table[i + 1];
+            if (msb != 0L || lsb != 0L) list.add(new UUID(msb, lsb).toString());
+        }
+
+        return list;
+    }
+
+    @Nullable
+    private static UUID parse(String uuid) {
+        try {
+            return UUID.fromString(uuid);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != 0L || old[i + 1] != 0L) insert(table, old[i], old[i + 1]);
+        }
+    }
+
+    private static boolean insert(long[] table, long msb, long lsb) {
+        int mask = (table.length / 2) - 1;
+
+        for (int slot = hash(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            long m = table[slot * 2], l = table[slot * 2 + 1];
+
+            if (m == 0L && l == 0L) {
+                table[slot * 2] = msb;
+                table[slot * 2 + 1] = lsb;
+                return true;
+            }
+
+            if (m == msb && l == lsb) return false;
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
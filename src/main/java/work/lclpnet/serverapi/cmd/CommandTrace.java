@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.cmd;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The timings of a single command scheme execution, split into the asynchronous stages of the execution.
+ * Stages are recorded with {@link #stage(String, Supplier)}. If nobody listens for traces, {@link #NOOP} is used,
+ * which records nothing.
+ *
+ * @see CommandTraceListener
+ */
+public class CommandTrace {
+
+    public static final CommandTrace NOOP = new CommandTrace("noop", "", false);
+
+    private final String command;
+    private final String playerUuid;
+    private final boolean enabled;
+    private final long startNanos = System.nanoTime();
+    private final List<Stage> stages = new ArrayList<>();
+    private volatile long durationNanos = -1L;
+    @Nullable
+    private volatile Throwable failure = null;
+
+    public CommandTrace(String command, String playerUuid) {
+        this(command, playerUuid, true);
+    }
+
+    private CommandTrace(String command, String playerUuid, boolean enabled) {
+        this.command = command;
+        this.playerUuid = playerUuid;
+        this.enabled = enabled;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public String getPlayerUuid() {
+        return playerUuid;
+    }
+
+    /**
+     * Records a stage of the execution, from now until the future of the stage completes.
+     *
+     * @param name  The name of the stage.
+     * @param stage A supplier that starts the stage.
+     * @param <T>   The type of the stage result.
+     * @return The future of the stage.
+     */
+    public <T> CompletableFuture<T> stage(String name, Supplier<CompletableFuture<T>> stage) {
+        if (!enabled) return stage.get();
+
+        final long start = System.nanoTime();
+        CompletableFuture<T> future;
+
+        try {
+            future = stage.get();
+        } catch (Throwable t) {
+            addStage(new Stage(name, start - startNanos, System.nanoTime() - start, true));
+            throw t;
+        }
+
+        future.whenComplete((result, error) -> addStage(new Stage(name, start - startNanos, System.nanoTime() - start, error != null)));
+
+        return future;
+    }
+
+    private void addStage(Stage stage) {
+        synchronized (stages) {
+            stages.add(stage);
+        }
+    }
+
+    /**
+     * @return The recorded stages, in the order they finished.
+     */
+    public List<Stage> getStages() {
+        synchronized (stages) {
+            return new ArrayList<>(stages);
+        }
+    }
+
+    /**
+     * @param unit The unit to convert the duration to.
+     * @return The duration of the whole execution, or -1, if it has not finished yet.
+     */
+    public long getDuration(TimeUnit unit) {
+        long duration = durationNanos;
+        return duration < 0L ? -1L : unit.convert(duration, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return The failure of the execution, or null, if it completed normally.
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    void finish(@Nullable Throwable failure) {
+        this.failure = failure;
+        this.durationNanos = System.nanoTime() - startNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(command).append(" by ").append(playerUuid)
+                .append(String.format(" took %.1fms", getDuration(TimeUnit.MICROSECONDS) / 1000D));
+
+        for (Stage stage : getStages()) {
+            builder.append("\n  ").append(stage);
+        }
+
+        return builder.toString();
+    }
+
+    public static class Stage {
+
+        private final String name;
+        private final long offsetNanos;
+        private final long durationNanos;
+        private final boolean failed;
+
+        protected Stage(String name, long offsetNanos, long durationNanos, boolean failed) {
+            this.name = name;
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+            this.failed = failed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @param unit The unit to convert the offset to.
+         * @return The time between the start of the execution and the start of this stage.
+         */
+        public long getOffset(TimeUnit unit) {
+            return unit.convert(offsetNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public long getDuration(TimeUnit unit) {
+            return unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return Whether the future of this stage completed exceptionally.
+         */
+        public boolean isFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: +%.1fms %.1fms%s", name, offsetNanos / 1e6, durationNanos / 1e6, failed ? " (failed)" : "");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.cmd;
+
+/**
+ * Receives the traces of command scheme executions.
+ *
+ * @see ICommandScheme#getTraceListener()
+ */
+@FunctionalInterface
+public interface CommandTraceListener {
+
+    /**
+     * Called, when an execution has finished. This is called on the thread that completed the execution.
+     *
+     * @param trace The finished trace.
+     */
+    void onTraceFinished(CommandTrace trace);
+}
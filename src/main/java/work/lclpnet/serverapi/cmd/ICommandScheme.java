@@ -7,10 +7,16 @@
 package work.lclpnet.serverapi.cmd;
 
 import work.lclpnet.serverapi.MCServerAPI;
+import work.lclpnet.serverapi.jfr.EventSpan;
+import work.lclpnet.serverapi.jfr.FlightEvents;
+import work.lclpnet.serverapi.util.Futures;
 import work.lclpnet.serverapi.util.IPlatformBridge;
 import work.lclpnet.serverapi.util.ServerContext;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 public interface ICommandScheme<T> {
 
@@ -18,6 +24,57 @@ public interface ICommandScheme<T> {
 
     CompletableFuture<T> execute(String playerUuid, Object[] args);
 
+    /**
+     * Gets the listener that receives the {@link CommandTrace traces} of this command's executions.
+     *
+     * @return The listener, or null to not record traces.
+     */
+    @Nullable
+    default CommandTraceListener getTraceListener() {
+        return null;
+    }
+
+    /**
+     * Traces an execution of this command as a flight recorder event, which ends once the returned future completes.
+     * If there is a {@link #getTraceListener() trace listener}, the stages of the execution are recorded
+     * and reported to the listener as well.
+     *
+     * @param playerUuid The UUID of the player who executed the command.
+     * @param execution  A function that starts the execution and records its stages in the given trace.
+     * @param <R>        The type of the result.
+     * @return The future of the execution.
+     * @see FlightEvents#beginCommand(String, String)
+     */
+    default <R> CompletableFuture<R> traceExecution(String playerUuid, Function<CommandTrace, CompletableFuture<R>> execution) {
+        EventSpan span = FlightEvents.beginCommand(getName(), playerUuid);
+        CommandTraceListener listener = getTraceListener();
+        CommandTrace trace = listener != null ? new CommandTrace(getName(), playerUuid) : CommandTrace.NOOP;
+
+        CompletableFuture<R> future;
+
+        try {
+            future = execution.apply(trace);
+        } catch (Throwable t) {
+            span.fail(t);
+
+            if (listener != null) {
+                trace.finish(t);
+                listener.onTraceFinished(trace);
+            }
+
+            throw t;
+        }
+
+        if (listener != null) {
+            future.whenComplete((result, error) -> {
+                trace.finish(error != null ? Futures.unwrap(error) : null);
+                listener.onTraceFinished(trace);
+            });
+        }
+
+        return span.endWhenDone(future);
+    }
+
     interface IPlatformCommandScheme<T> extends ICommandScheme<T> {
 
         MCServerAPI getAPI();
@@ -25,5 +82,34 @@ public interface ICommandScheme<T> {
         IPlatformBridge getPlatformBridge();
 
         ServerContext getContext();
+
+        /**
+         * Gets the executor on which the continuations of this command's requests should run, e.g. the server main thread.
+         * If the {@link MCServerAPI} instance already has a completion executor, this can stay null.
+         *
+         * @return The executor, or null to run continuations on the thread that completed the request.
+         * @see MCServerAPI#setCompletionExecutor(Executor)
+         */
+        @Nullable
+        default Executor getCompletionExecutor() {
+            return null;
+        }
+
+        /**
+         * Applies the API timeout to a request future and tracks it for a player,
+         * so that it is cancelled once the player leaves.
+         * The returned future is completed on the {@link #getCompletionExecutor() completion executor}.
+         *
+         * @param playerUuid The UUID of the player who triggered the request.
+         * @param future     The request future.
+         * @param <R>        The type of the future.
+         * @return The tracked future, completed on the completion executor.
+         * @see work.lclpnet.serverapi.util.ServerCache#dropAllCachesFor(String)
+         */
+        default <R> CompletableFuture<R> trackRequest(String playerUuid, CompletableFuture<R> future) {
+            CompletableFuture<R> tracked = getContext().getCache().getRequestTracker().track(playerUuid, getAPI().withDeadline(future));
+
+            return Futures.completeOn(tracked, getCompletionExecutor());
+        }
     }
 }
@@ -23,11 +23,15 @@ public interface LanguageCommandScheme extends ICommandScheme.IPlatformCommandSc
 
     @Override
     default CompletableFuture<Boolean> execute(String playerUuid, Object[] args) {
+        return traceExecution(playerUuid, trace -> perform(playerUuid, args, trace));
+    }
+
+    default CompletableFuture<Boolean> perform(String playerUuid, Object[] args, CommandTrace trace) {
         if (args.length > 1) throw new ImplementationException();
 
         if (args.length == 0) {
             // fetch the sender's current language
-            return fetchCurrentLang(playerUuid);
+            return fetchCurrentLang(playerUuid, trace);
         }
 
         // only string arguments are supported here
@@ -56,7 +60,7 @@ public interface LanguageCommandScheme extends ICommandScheme.IPlatformCommandSc
             return CompletableFuture.completedFuture(false);
         }
 
-        return getAPI().setPreferredLanguage(playerUuid, argument).exceptionally(ex -> {
+        return trackRequest(playerUuid, trace.stage("language-update", () -> getAPI().setPreferredLanguage(playerUuid, argument))).exceptionally(ex -> {
             if (shouldDebug()) logError(ex);
 
             return null;
@@ -86,6 +90,10 @@ public interface LanguageCommandScheme extends ICommandScheme.IPlatformCommandSc
     }
 
     default CompletableFuture<Boolean> fetchCurrentLang(String playerUuid) {
+        return fetchCurrentLang(playerUuid, CommandTrace.NOOP);
+    }
+
+    default CompletableFuture<Boolean> fetchCurrentLang(String playerUuid, CommandTrace trace) {
         MCPlayer player = getContext().getCache().getPlayer(playerUuid);
 
         if (player != null) {
@@ -94,7 +102,7 @@ public interface LanguageCommandScheme extends ICommandScheme.IPlatformCommandSc
             return CompletableFuture.completedFuture(true);
         }
 
-        return getAPI().getMCPlayerByUUID(playerUuid).thenApply(pl -> {
+        return trackRequest(playerUuid, trace.stage("player-lookup", () -> getAPI().getMCPlayerByUUID(playerUuid))).thenApply(pl -> {
             if (pl == null) {
                 getPlatformBridge().sendMessageTo(playerUuid, MCMessage.error().thenTranslate("netlang.error"));
                 return null;
@@ -20,12 +20,16 @@ public interface MCLinkCommandScheme extends ICommandScheme.IPlatformCommandSche
 
     @Override
     default CompletableFuture<Boolean> execute(String playerUuid, Object[] args) {
+        return traceExecution(playerUuid, trace -> perform(playerUuid, args, trace));
+    }
+
+    default CompletableFuture<Boolean> perform(String playerUuid, Object[] args, CommandTrace trace) {
         IPlatformBridge bridge = getPlatformBridge();
 
         bridge.sendMessageTo(playerUuid, MCMessage.prefixed()
                 .thenTranslate("mc-link.requesting"));
 
-        return getAPI().requestMCLinkReverseToken(playerUuid).exceptionally(ex -> {
+        return trackRequest(playerUuid, trace.stage("token-request", () -> getAPI().requestMCLinkReverseToken(playerUuid))).exceptionally(ex -> {
             if (shouldDebug()) logError(ex);
 
             return null;
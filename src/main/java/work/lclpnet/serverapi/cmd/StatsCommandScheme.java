@@ -16,6 +16,12 @@ import java.util.concurrent.CompletionException;
 
 public interface StatsCommandScheme extends ICommandScheme.IPlatformCommandScheme<Boolean>, IDebuggable {
 
+    /* names of the traced stages */
+    String STAGE_NAME_RESOLUTION = "name-resolution";
+    String STAGE_PLAYER_LOOKUP = "player-lookup";
+    String STAGE_NAME_FETCH = "name-fetch";
+    String STAGE_STATS_FETCH = "stats-fetch";
+
     void openStats(String invokerUuid, String targetUuid, MCMessage title, MCStats targetStats);
 
     @Override
@@ -25,6 +31,10 @@ public interface StatsCommandScheme extends ICommandScheme.IPlatformCommandSchem
 
     @Override
     default CompletableFuture<Boolean> execute(String playerUuid, Object[] args) {
+        return traceExecution(playerUuid, trace -> perform(playerUuid, args, trace));
+    }
+
+    default CompletableFuture<Boolean> perform(String playerUuid, Object[] args, CommandTrace trace) {
         IPlatformBridge bridge = getPlatformBridge();
 
         if (args.length > 1) {
@@ -32,7 +42,7 @@ public interface StatsCommandScheme extends ICommandScheme.IPlatformCommandSchem
         }
 
         if (args.length == 0) { // fetch the sender's stats
-            return fetchStats(playerUuid, playerUuid);
+            return fetchStats(playerUuid, playerUuid, trace);
         }
 
         // only string arguments are supported here
@@ -44,26 +54,36 @@ public interface StatsCommandScheme extends ICommandScheme.IPlatformCommandSchem
 
         // Test if argument is a UUID.
         if (argument.matches("^[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$")) {
-            return executeUuid(playerUuid, bridge, argument);
+            return executeUuid(playerUuid, bridge, argument, trace);
         }
 
         // otherwise assume the argument is a username.
-        return executeName(playerUuid, bridge, argument);
+        return executeName(playerUuid, bridge, argument, trace);
     }
 
     default CompletableFuture<Boolean> executeName(String playerUuid, IPlatformBridge bridge, String argument) {
+        return executeName(playerUuid, bridge, argument, CommandTrace.NOOP);
+    }
+
+    default CompletableFuture<Boolean> executeName(String playerUuid, IPlatformBridge bridge, String argument, CommandTrace trace) {
         bridge.sendMessageTo(playerUuid, MCMessage.prefixed()
                 .thenTranslate("mc.search_player", MCMessage.blank()
                         .setColor(MCMessage.MessageColor.YELLOW)
                         .text(argument)));
 
-        return bridge.getPlayerByName(argument, getAPI())
+        // resolved in two stages, like IPlatformBridge#getPlayerByName, so that both are timed separately
+        return trackRequest(playerUuid, trace.stage(STAGE_NAME_RESOLUTION, () -> bridge.getPlayerUUIDByName(argument)))
+                .thenCompose(uuid -> {
+                    if (uuid == null) throw new NullPointerException(IPlatformBridge.NO_ACCOUNT_WITH_NAME);
+
+                    return trackRequest(playerUuid, trace.stage(STAGE_PLAYER_LOOKUP, () -> getAPI().getMCPlayerByUUID(uuid)));
+                })
                 .exceptionally(throwable -> {
                     if (throwable instanceof CompletionException) {
                         Throwable cause = throwable.getCause();
 
                         if (cause instanceof NullPointerException
-                                && "There is no minecraft account with that name.".equals(cause.getMessage())) {
+                                && IPlatformBridge.NO_ACCOUNT_WITH_NAME.equals(cause.getMessage())) {
                             bridge.sendMessageTo(playerUuid, MCMessage.error()
                                     .thenTranslate("mc.player.not_found_name", MCMessage.blank()
                                             .setColor(MCMessage.MessageColor.YELLOW)
@@ -82,13 +102,17 @@ public interface StatsCommandScheme extends ICommandScheme.IPlatformCommandSchem
                     }
 
                     // target fetched successfully.
-                    return fetchStats(playerUuid, fetchedTarget.getUuid());
+                    return fetchStats(playerUuid, fetchedTarget.getUuid(), trace);
                 });
     }
 
     default CompletableFuture<Boolean> executeUuid(String playerUuid, IPlatformBridge bridge, String argument) {
+        return executeUuid(playerUuid, bridge, argument, CommandTrace.NOOP);
+    }
+
+    default CompletableFuture<Boolean> executeUuid(String playerUuid, IPlatformBridge bridge, String argument, CommandTrace trace) {
         // First, fetch player by UUID.
-        return getAPI().getMCPlayerByUUID(argument).thenCompose(fetchedTarget -> {
+        return trackRequest(playerUuid, trace.stage(STAGE_PLAYER_LOOKUP, () -> getAPI().getMCPlayerByUUID(argument))).thenCompose(fetchedTarget -> {
 
             if (fetchedTarget == null) { // there was an error or no player was found
                 bridge.sendMessageTo(playerUuid, MCMessage.error()
@@ -99,31 +123,39 @@ public interface StatsCommandScheme extends ICommandScheme.IPlatformCommandSchem
             }
 
             // target fetched successfully.
-            return fetchStats(playerUuid, fetchedTarget.getUuid());
+            return fetchStats(playerUuid, fetchedTarget.getUuid(), trace);
         });
     }
 
     default CompletableFuture<Boolean> fetchStats(String invokerUuid, String targetUuid) {
+        return fetchStats(invokerUuid, targetUuid, CommandTrace.NOOP);
+    }
+
+    default CompletableFuture<Boolean> fetchStats(String invokerUuid, String targetUuid, CommandTrace trace) {
         IPlatformBridge bridge = getPlatformBridge();
 
         if (!invokerUuid.equals(targetUuid)) {
-            return bridge.getPlayerNameByUUID(targetUuid).thenCompose(name -> {
+            return trackRequest(invokerUuid, trace.stage(STAGE_NAME_FETCH, () -> bridge.getPlayerNameByUUID(targetUuid))).thenCompose(name -> {
                 bridge.sendMessageTo(invokerUuid, MCMessage.prefixed().thenTranslate("stats.loading", MCMessage.blank()
                         .setColor(MCMessage.MessageColor.YELLOW)
                         .text(name)));
                 return fetchActual(invokerUuid, targetUuid, MCMessage.blank().thenTranslate("stats.title.player", MCMessage.blank()
-                        .text(name)));
+                        .text(name)), trace);
             });
         }
 
         bridge.sendMessageTo(invokerUuid, MCMessage.prefixed().thenTranslate("stats.loading_yours"));
-        return fetchActual(invokerUuid, targetUuid, MCMessage.blank().thenTranslate("stats.title.yours"));
+        return fetchActual(invokerUuid, targetUuid, MCMessage.blank().thenTranslate("stats.title.yours"), trace);
     }
 
     default CompletableFuture<Boolean> fetchActual(String invokerUuid, String targetUuid, MCMessage title) {
+        return fetchActual(invokerUuid, targetUuid, title, CommandTrace.NOOP);
+    }
+
+    default CompletableFuture<Boolean> fetchActual(String invokerUuid, String targetUuid, MCMessage title, CommandTrace trace) {
         IPlatformBridge bridge = getPlatformBridge();
 
-        return getAPI().getStats(targetUuid, null).exceptionally(ex -> {
+        return trackRequest(invokerUuid, trace.stage(STAGE_STATS_FETCH, () -> getAPI().getStats(targetUuid, null))).exceptionally(ex -> {
             if (shouldDebug()) logError(ex);
             return null;
         }).thenApply(stats -> {
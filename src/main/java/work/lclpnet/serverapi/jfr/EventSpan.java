@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.jfr;
+
+import work.lclpnet.serverapi.util.Futures;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A started flight recorder event, which is committed once the traced operation ends.
+ * If the event is disabled, {@link #NOOP} is used, which does nothing.
+ *
+ * @see FlightEvents
+ */
+public class EventSpan {
+
+    public static final EventSpan NOOP = new EventSpan();
+
+    protected EventSpan() {
+    }
+
+    /**
+     * Ends the traced operation successfully.
+     *
+     * @param status The status of the operation, e.g. the response code of a request.
+     */
+    public void end(int status) {
+    }
+
+    /**
+     * Ends the traced operation with a failure.
+     *
+     * @param error The failure.
+     */
+    public void fail(Throwable error) {
+    }
+
+    /**
+     * Ends this span, once a future completes.
+     *
+     * @param future The future of the traced operation.
+     * @param <T>    The type of the future.
+     * @return The same future.
+     */
+    public final <T> CompletableFuture<T> endWhenDone(CompletableFuture<T> future) {
+        if (this == NOOP) return future;
+
+        future.whenComplete((result, error) -> {
+            if (error != null) fail(Futures.unwrap(error));
+            else end(0);
+        });
+
+        return future;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.jfr;
+
+/**
+ * Emits custom Java Flight Recorder events for library activity, so that it can be correlated with lag in recordings.
+ * This variant is used on Java 8, which has no event API, and does nothing.
+ * The multi-release jar contains a variant for Java 11+, which emits the events.
+ * If an event is not enabled in the current recording, the methods return immediately without allocating.
+ */
+public class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    /**
+     * @return Whether this runtime supports the events of this class.
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Begins an event for a request to the LCLPNetwork backend.
+     *
+     * @param method   The request method.
+     * @param endpoint The endpoint path.
+     * @return The started event, which must be ended with the response code.
+     */
+    public static EventSpan beginRequest(String method, String endpoint) {
+        return EventSpan.NOOP;
+    }
+
+    /**
+     * Begins an event for a lookup at the Mojang API.
+     *
+     * @param lookup The kind of lookup, e.g. "uuid-by-name".
+     * @param query  The queried name or UUID.
+     * @return The started event.
+     */
+    public static EventSpan beginMojangLookup(String lookup, String query) {
+        return EventSpan.NOOP;
+    }
+
+    /**
+     * Begins an event for the execution of a command scheme.
+     *
+     * @param command    The name of the command scheme.
+     * @param playerUuid The UUID of the player who executed the command.
+     * @return The started event.
+     */
+    public static EventSpan beginCommand(String command, String playerUuid) {
+        return EventSpan.NOOP;
+    }
+
+    /**
+     * Emits an event for a cache lookup.
+     *
+     * @param cache The name of the cache.
+     * @param hit   Whether the lookup was a hit.
+     */
+    public static void cacheLookup(String cache, boolean hit) {
+    }
+}
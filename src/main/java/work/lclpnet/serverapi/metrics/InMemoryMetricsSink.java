@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.metrics;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link MetricsSink} which aggregates the measurements per endpoint in memory.
+ * It can be queried directly, e.g. by a debug command, or periodically exported to another system.
+ */
+public class InMemoryMetricsSink implements MetricsSink {
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void requestStarted(String endpoint, long requestBytes) {
+        EndpointMetrics metrics = getOrCreate(endpoint);
+        metrics.inFlight.incrementAndGet();
+        metrics.requestBytes.add(requestBytes);
+    }
+
+    @Override
+    public void requestCompleted(String endpoint, int status, long durationNanos, long responseBytes) {
+        EndpointMetrics metrics = getOrCreate(endpoint);
+        metrics.inFlight.decrementAndGet();
+        metrics.latency.record(durationNanos);
+        metrics.statusCounts.computeIfAbsent(status, code -> new LongAdder()).increment();
+        metrics.responseBytes.add(responseBytes);
+    }
+
+    @Override
+    public void requestFailed(String endpoint, Throwable error, long durationNanos) {
+        EndpointMetrics metrics = getOrCreate(endpoint);
+        metrics.inFlight.decrementAndGet();
+        metrics.latency.record(durationNanos);
+        metrics.failureCounts.computeIfAbsent(error.getClass().getSimpleName(), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * @param endpoint The endpoint path.
+     * @return The metrics of the endpoint, or null, if there were no requests to it.
+     */
+    @Nullable
+    public EndpointMetrics getEndpoint(String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * @return The metrics of all endpoints, by endpoint path.
+     */
+    public Map<String, EndpointMetrics> getEndpoints() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * @return The total number of requests currently in flight.
+     */
+    public int getInFlight() {
+        int inFlight = 0;
+
+        for (EndpointMetrics metrics : endpoints.values()) {
+            inFlight += metrics.getInFlight();
+        }
+
+        return inFlight;
+    }
+
+    /**
+     * Resets the latencies, counters and byte counts. In-flight gauges are kept.
+     */
+    public void reset() {
+        endpoints.values().forEach(EndpointMetrics::reset);
+    }
+
+    private EndpointMetrics getOrCreate(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, path -> new EndpointMetrics());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        new TreeMap<>(endpoints).forEach((endpoint, metrics) -> builder
+                .append(endpoint).append(": ").append(metrics).append('\n'));
+
+        return builder.toString();
+    }
+
+    public static class EndpointMetrics {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> failureCounts = new ConcurrentHashMap<>();
+        private final LongAdder requestBytes = new LongAdder(), responseBytes = new LongAdder();
+
+        protected EndpointMetrics() {
+        }
+
+        /**
+         * @return The latencies of completed and failed requests.
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * @param status A status code.
+         * @return The number of responses with the status code.
+         */
+        public long getStatusCount(int status) {
+            LongAdder count = statusCounts.get(status);
+            return count != null ? count.sum() : 0L;
+        }
+
+        /**
+         * @return The number of responses, by status code.
+         */
+        public Map<Integer, Long> getStatusCounts() {
+            return sum(statusCounts);
+        }
+
+        /**
+         * @return The number of requests that failed without a response, by simple exception class name.
+         */
+        public Map<String, Long> getFailureCounts() {
+            return sum(failureCounts);
+        }
+
+        public long getRequestBytes() {
+            return requestBytes.sum();
+        }
+
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+
+        void reset() {
+            latency.reset();
+            statusCounts.clear();
+            failureCounts.clear();
+            requestBytes.reset();
+            responseBytes.reset();
+        }
+
+        private static <K> Map<K, Long> sum(Map<K, LongAdder> counters) {
+            Map<K, Long> sums = new TreeMap<>();
+            counters.forEach((key, count) -> sums.put(key, count.sum()));
+            return sums;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("p50=%.1fms p99=%.1fms max=%.1fms inFlight=%d status=%s failures=%s sent=%dB received=%dB",
+                    latency.getPercentile(50, TimeUnit.MICROSECONDS) / 1000D,
+                    latency.getPercentile(99, TimeUnit.MICROSECONDS) / 1000D,
+                    latency.getMax(TimeUnit.MICROSECONDS) / 1000D,
+                    getInFlight(), getStatusCounts(), getFailureCounts(), getRequestBytes(), getResponseBytes());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of durations with a fixed memory footprint.
+ * Durations are counted in log-linear buckets: each power of two is split into 16 sub-buckets,
+ * so that percentiles have a relative error of at most 1/16. The maximum is recorded exactly.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong(0L);
+    private final AtomicLong max = new AtomicLong(0L);
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        if (nanos < 0L) nanos = 0L;
+
+        counts.incrementAndGet(indexOf(nanos));
+        count.incrementAndGet();
+
+        long current;
+        do {
+            current = max.get();
+        } while (nanos > current && !max.compareAndSet(current, nanos));
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @param unit The unit to convert the result to.
+     * @return The maximum recorded duration.
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Estimates a percentile of the recorded durations.
+     *
+     * @param percentile The percentile, in range [0;100].
+     * @param unit       The unit to convert the result to.
+     * @return The upper bound of the bucket containing the percentile, or 0, if nothing was recorded.
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        if (percentile < 0D || percentile > 100D) throw new IllegalArgumentException("The percentile must be in range [0;100]");
+
+        long total = count.get();
+        if (total == 0L) return 0L;
+
+        long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100D));
+        long seen = 0L;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+
+            if (seen >= rank) {
+                long nanos = Math.min(upperBoundOf(i), max.get());
+                return unit.convert(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        return getMax(unit);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0L);
+        }
+
+        count.set(0L);
+        max.set(0L);
+    }
+
+    static int indexOf(long nanos) {
+        if (nanos < SUB_BUCKETS) return (int) nanos;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int shift = exponent - SUB_BITS;
+        int sub = (int) (nanos >>> shift) & (SUB_BUCKETS - 1);
+
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << shift;
+
+        return lower + (1L << shift) - 1L;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonIOException;
+import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.serverapi.net.ApiInterceptor;
+import work.lclpnet.serverapi.net.ApiRequest;
+import work.lclpnet.serverapi.util.Futures;
+
+import javax.annotation.Nullable;
+import java.io.Writer;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * An interceptor which reports the requests passing through it to a {@link MetricsSink}.
+ * It should be added as the first interceptor, so that requests rejected by other interceptors are measured as well:
+ * <pre>{@code api.getPipeline().addInterceptor(new MetricsInterceptor(sink));}</pre>
+ */
+public class MetricsInterceptor implements ApiInterceptor {
+
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private final MetricsSink sink;
+    private final LongSupplier nanoClock;
+
+    public MetricsInterceptor(MetricsSink sink) {
+        this(sink, System::nanoTime);
+    }
+
+    public MetricsInterceptor(MetricsSink sink, LongSupplier nanoClock) {
+        this.sink = Objects.requireNonNull(sink);
+        this.nanoClock = Objects.requireNonNull(nanoClock);
+    }
+
+    public MetricsSink getSink() {
+        return sink;
+    }
+
+    @Override
+    public CompletableFuture<APIResponse> intercept(ApiRequest request, Chain chain) {
+        final String endpoint = request.getPath();
+
+        sink.requestStarted(endpoint, sizeOf(request.getBody()));
+        final long start = nanoClock.getAsLong();
+
+        CompletableFuture<APIResponse> future;
+
+        try {
+            future = chain.proceed(request);
+        } catch (Throwable t) {
+            sink.requestFailed(endpoint, t, nanoClock.getAsLong() - start);
+            throw t;
+        }
+
+        future.whenComplete((response, error) -> {
+            final long duration = nanoClock.getAsLong() - start;
+
+            if (error != null) {
+                sink.requestFailed(endpoint, Futures.unwrap(error), duration);
+                return;
+            }
+
+            String body = response.getResponseCode() < 400 ? response.getRawResponse() : response.getRawError();
+            sink.requestCompleted(endpoint, response.getResponseCode(), duration, utf8Length(body));
+        });
+
+        return future;
+    }
+
+    /**
+     * Measures the serialized size of a request body, without building the serialized string.
+     *
+     * @param body The request body.
+     * @return The size of the body in UTF-8 bytes.
+     */
+    static long sizeOf(@Nullable JsonObject body) {
+        if (body == null) return 0L;
+
+        CountingWriter writer = new CountingWriter();
+
+        try {
+            GSON.toJson(body, writer);
+        } catch (JsonIOException e) {
+            return 0L;  // the counting writer does not throw
+        }
+
+        return writer.bytes;
+    }
+
+    static long utf8Length(@Nullable CharSequence chars) {
+        if (chars == null) return 0L;
+
+        long bytes = 0L;
+
+        for (int i = 0, len = chars.length(); i < len; i++) {
+            bytes += utf8Length(chars.charAt(i));
+        }
+
+        return bytes;
+    }
+
+    private static int utf8Length(char c) {
+        if (c < 0x80) return 1;
+        if (c < 0x800) return 2;
+        // each half of a surrogate pair accounts for half of the four bytes
+        if (Character.isSurrogate(c)) return 2;
+        return 3;
+    }
+
+    private static class CountingWriter extends Writer {
+
+        private long bytes = 0L;
+
+        @Override
+        public void write(int c) {
+            bytes += utf8Length((char) c);
+        }
+
+        @Override
+        public void write(char[] buf, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                bytes += utf8Length(buf[i]);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                bytes += utf8Length(str.charAt(i));
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
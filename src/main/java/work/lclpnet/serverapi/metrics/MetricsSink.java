@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.metrics;
+
+/**
+ * Receives measurements of the requests of a {@link work.lclpnet.serverapi.MCServerAPI}.
+ * Implementations can forward them to any metrics library. They are called on the threads that send and complete requests,
+ * so they must be thread-safe and should not block.
+ *
+ * @see MetricsInterceptor
+ * @see InMemoryMetricsSink
+ */
+public interface MetricsSink {
+
+    /**
+     * Called, when a request is sent.
+     *
+     * @param endpoint     The endpoint path.
+     * @param requestBytes The size of the request body in bytes.
+     */
+    void requestStarted(String endpoint, long requestBytes);
+
+    /**
+     * Called, when a response was received.
+     *
+     * @param endpoint      The endpoint path.
+     * @param status        The status code of the response.
+     * @param durationNanos The duration of the request in nanoseconds.
+     * @param responseBytes The size of the response body in bytes.
+     */
+    void requestCompleted(String endpoint, int status, long durationNanos, long responseBytes);
+
+    /**
+     * Called, when a request failed without a response, e.g. because the backend is unreachable or the request timed out.
+     *
+     * @param endpoint      The endpoint path.
+     * @param error         The failure.
+     * @param durationNanos The duration of the request in nanoseconds.
+     */
+    void requestFailed(String endpoint, Throwable error, long durationNanos);
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import com.google.gson.stream.JsonWriter;
+import work.lclpnet.translations.Translator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Serializes {@link MCMessage}s to Minecraft text component JSON, as used by chat packets and the tellraw command.
+ * Translations are resolved with a {@link Translator} and {@link MCMessage.ColorMode#INHERIT} is resolved
+ * while the message is written, so no intermediate tree is built.<br>
+ * <br>
+ * Style rules:
+ * <ul>
+ *     <li>A node with {@link MCMessage.ColorMode#INHERIT} uses its own formatting and the effective color of its parent.</li>
+ *     <li>A node with {@link MCMessage.ColorMode#LOCAL} uses its own formatting and its own color,
+ *     or the color of its parent, if it has none. With {@link MCMessage.MessageStyle#isReset() reset},
+ *     the color of the parent is not used either.</li>
+ * </ul>
+ * Only the differences to the parent are written, since components inherit the style of their parent.
+ * The 16 legacy colors are written by name, other colors as {@code #rrggbb}.<br>
+ * <br>
+ * Serializers are thread-safe, if the translator is.
+ */
+public class JsonMessageSerializer {
+
+    private static final String[] LEGACY_COLOR_NAMES = new String[] {
+            "black", "dark_blue", "dark_green", "dark_aqua", "dark_red", "dark_purple", "gold", "gray",
+            "dark_gray", "blue", "green", "aqua", "red", "light_purple", "yellow", "white"
+    };
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    /* substitutes are passed to the translator as markers, so that their position in the translation can be found */
+    private static final char MARKER_START = '\uFDD0', MARKER_END = '\uFDD1';
+    private static final int MAX_CACHED_MARKERS = 16;
+    private static final String[] MARKERS = new String[MAX_CACHED_MARKERS];
+
+    static {
+        for (int i = 0; i < MAX_CACHED_MARKERS; i++) {
+            MARKERS[i] = createMarker(i);
+        }
+    }
+
+    private final Translator translator;
+
+    public JsonMessageSerializer(Translator translator) {
+        this.translator = Objects.requireNonNull(translator);
+    }
+
+    public Translator getTranslator() {
+        return translator;
+    }
+
+    /**
+     * Serializes a message to a JSON string.
+     *
+     * @param msg      The message.
+     * @param language The language to translate to.
+     * @return The text component JSON.
+     */
+    public String toJson(MCMessage msg, String language) {
+        StringWriter writer = new StringWriter();
+        write(msg, language, writer);
+
+        return writer.toString();
+    }
+
+    /**
+     * Serializes a {@link MessageOptimizer optimized} copy of a message to a JSON string.
+     * The output is displayed the same way as {@link #toJson(MCMessage, String)}, but it is usually smaller.
+     * Optimizing costs more than it saves while serializing, so this is meant for messages whose output is reused,
+     * e.g. as the renderer of a {@link RenderCache}: {@code new RenderCache<>(serializer::toCompactJson, 256)}.
+     * Messages from a {@link MessageTemplate} should use {@link #toCompactJson(MessageTemplate, String, Object...)} instead.
+     *
+     * @param msg      The message.
+     * @param language The language to translate to.
+     * @return The text component JSON.
+     */
+    public String toCompactJson(MCMessage msg, String language) {
+        return toJson(MessageOptimizer.optimize(msg), language);
+    }
+
+    /**
+     * Serializes a message created from a template to a JSON string.
+     * The template is optimized only once, so unlike {@link #toCompactJson(MCMessage, String)}, this doesn't optimize on every call.
+     *
+     * @param template  The template.
+     * @param language  The language to translate to.
+     * @param arguments The arguments for {@link MessageTemplate#createCompact(Object...)}.
+     * @return The text component JSON.
+     */
+    public String toCompactJson(MessageTemplate template, String language, Object... arguments) {
+        return toJson(template.createCompact(arguments), language);
+    }
+
+    /**
+     * Serializes a message to a writer.
+     *
+     * @param msg      The message.
+     * @param language The language to translate to.
+     * @param writer   The writer to write the text component JSON to. It is not closed.
+     * @throws UncheckedIOException If the writer throws an {@link IOException}.
+     */
+    public void write(MCMessage msg, String language, Writer writer) {
+        try {
+            JsonWriter json = new JsonWriter(writer);
+            write(msg, language, json);
+            json.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Serializes a message as the next value of a {@link JsonWriter}.
+     *
+     * @param msg      The message.
+     * @param language The language to translate to.
+     * @param json     The JSON writer.
+     * @throws IOException If the writer throws an {@link IOException}.
+     */
+    public void write(MCMessage msg, String language, JsonWriter json) throws IOException {
+        writeComponent(Objects.requireNonNull(msg), Objects.requireNonNull(language), json, MCMessage.MessageStyle.EMPTY);
+    }
+
+    private void writeComponent(MCMessage msg, String language, JsonWriter json, MCMessage.MessageStyle parent) throws IOException {
+        MCMessage.MessageStyle style = effectiveStyle(msg, parent);
+
+        json.beginObject();
+
+        if (msg instanceof MCMessage.MCTranslationMessage && msg.isTextNode()) {
+            writeTranslation((MCMessage.MCTranslationMessage) msg, language, json, style, parent);
+        } else if (msg.isTextNode()) {
+            json.name("text").value(msg.getText());
+            writeStyle(json, style, parent);
+        } else {
+            json.name("text").value("");
+            writeStyle(json, style, parent);
+
+            List<MCMessage> children = msg.getChildren();
+
+            if (!children.isEmpty()) {
+                json.name("extra").beginArray();
+
+                for (MCMessage child : children) {
+                    writeComponent(child, language, json, style);
+                }
+
+                json.endArray();
+            }
+        }
+
+        json.endObject();
+    }
+
+    private void writeTranslation(MCMessage.MCTranslationMessage msg, String language, JsonWriter json,
+                                  MCMessage.MessageStyle style, MCMessage.MessageStyle parent) throws IOException {
+        List<MCMessage> substitutes = msg.getSubstitutes();
+
+        if (substitutes.isEmpty()) {
+            json.name("text").value(translator.translate(language, msg.getText()));
+            writeStyle(json, style, parent);
+            return;
+        }
+
+        Object[] markers = new Object[substitutes.size()];
+
+        for (int i = 0; i < markers.length; i++) {
+            markers[i] = i < MAX_CACHED_MARKERS ? MARKERS[i] : createMarker(i);
+        }
+
+        String translated = translator.translate(language, msg.getText(), markers);
+
+        // the text up to the first substitute is the text of the component, everything else is written as extra
+        int start = translated.indexOf(MARKER_START);
+        json.name("text").value(start == -1 ? translated : translated.substring(0, start));
+        writeStyle(json, style, parent);
+
+        if (start == -1) return;
+
+        json.name("extra").beginArray();
+
+        while (start != -1) {
+            int end = translated.indexOf(MARKER_END, start);
+
+            if (end == -1) {
+                json.value(translated.substring(start));
+                break;
+            }
+
+            int index = parseIndex(translated, start + 1, end);
+
+            if (index >= 0 && index < substitutes.size()) {
+                writeComponent(substitutes.get(index), language, json, style);
+            } else {
+                json.value(translated.substring(start, end + 1));
+            }
+
+            start = translated.indexOf(MARKER_START, end + 1);
+            int textEnd = start == -1 ? translated.length() : start;
+
+            if (textEnd > end + 1) {
+                json.value(translated.substring(end + 1, textEnd));
+            }
+        }
+
+        json.endArray();
+    }
+
+    private static void writeStyle(JsonWriter json, MCMessage.MessageStyle style, MCMessage.MessageStyle parent) throws IOException {
+        if (style.getPacked() == parent.getPacked()) return;
+
+        if (style.hasColor()) {
+            if (!parent.hasColor() || (style.getPacked() & 0xFFFFFF) != (parent.getPacked() & 0xFFFFFF)) {
+                json.name("color").value(colorName(style.getPacked() & 0xFFFFFF));
+            }
+        } else if (parent.hasColor()) {
+            json.name("color").value("white");  // reset
+        }
+
+        if (style.isBold() != parent.isBold()) json.name("bold").value(style.isBold());
+        if (style.isItalic() != parent.isItalic()) json.name("italic").value(style.isItalic());
+        if (style.isUnderline() != parent.isUnderline()) json.name("underlined").value(style.isUnderline());
+        if (style.isStrikethrough() != parent.isStrikethrough()) json.name("strikethrough").value(style.isStrikethrough());
+        if (style.isObfuscated() != parent.isObfuscated()) json.name("obfuscated").value(style.isObfuscated());
+    }
+
+    /**
+     * Determines the style a message is displayed with.
+     *
+     * @param msg    The message.
+     * @param parent The effective style of the parent.
+     * @return The effective style of the message.
+     */
+    static MCMessage.MessageStyle effectiveStyle(MCMessage msg, MCMessage.MessageStyle parent) {
+        MCMessage.MessageStyle style = msg.getStyle();
+        if (msg.getColorMode() == MCMessage.ColorMode.INHERIT) return style.withColorOf(parent);
+
+        if (style.hasColor() || style.isReset() || !parent.hasColor()) return style;
+
+        return style.withColorOf(parent);
+    }
+
+    static String colorName(int rgb) {
+        int legacy = MCMessage.MessageColor.legacyIndex(rgb);
+        if (legacy != -1) return LEGACY_COLOR_NAMES[legacy];
+
+        char[] chars = new char[7];
+        chars[0] = '#';
+
+        for (int i = 6; i >= 1; i--) {
+            chars[i] = HEX_DIGITS[rgb & 0xF];
+            rgb >>>= 4;
+        }
+
+        return new String(chars);
+    }
+
+    private static String createMarker(int index) {
+        return MARKER_START + Integer.toString(index) + MARKER_END;
+    }
+
+    private static int parseIndex(String str, int start, int end) {
+        if (start >= end) return -1;
+
+        int index = 0;
+
+        for (int i = start; i < end; i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9' || i - start > 6) return -1;
+
+            index = index * 10 + (c - '0');
+        }
+
+        return index;
+    }
+}
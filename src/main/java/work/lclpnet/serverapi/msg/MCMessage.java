@@ -11,20 +11,28 @@ import work.lclpnet.serverapi.util.IPlatformBridge;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 
 /**
  * A platform independent Minecraft chat message.
  * An {@link IPlatformBridge} must be implemented for the target platform in order to actually send them.
- * This is needed because, for instance, Bukkit handles chat messages a little different from Forge / Fabric.
+ * This is needed because, for instance, Bukkit handles chat messages a little different from Forge / Fabric.<br>
+ * <br>
+ * Messages can be {@link #freeze() frozen}, so that they can be shared between messages and threads.
+ * {@link MessageTemplate}s use this to build the constant parts of a message only once.
  */
 public class MCMessage {
 
     private static String prefix = "LCLPNetwork";
-    protected final List<MCMessage> children = new ArrayList<>();
+    private static volatile SharedPrefix sharedPrefix = null;
+    protected List<MCMessage> children = new ArrayList<>();
     protected ColorMode colorMode;
+    protected boolean frozen = false;
 
     /* */
     protected MessageStyle style;
@@ -35,7 +43,7 @@ public class MCMessage {
     }
 
     protected MCMessage(@Nullable MessageColor color, ColorMode colorMode) {
-        this(new MessageStyle(color), colorMode);
+        this(MessageStyle.of(color), colorMode);
     }
 
     protected MCMessage(MessageStyle style, ColorMode colorMode) {
@@ -90,7 +98,26 @@ public class MCMessage {
      * @return A new prefixed message.
      */
     public static MCMessage prefixed(String prefix, MessageColor prefixColor) {
-        return blank().then(blank().setColor(prefixColor).text(prefix + "> ")).setColor(MessageColor.GRAY);
+        return blank().then(prefixNode(prefix, prefixColor)).setColor(MessageColor.GRAY);
+    }
+
+    /**
+     * Gets a frozen prefix node, which is shared between all prefixed messages with the same prefix and color.
+     *
+     * @param prefix      The prefix.
+     * @param prefixColor The color of the prefix.
+     * @return The frozen prefix node.
+     */
+    private static MCMessage prefixNode(String prefix, MessageColor prefixColor) {
+        SharedPrefix shared = sharedPrefix;
+
+        // usually, the same prefix is used all the time, so only the most recent one is kept
+        if (shared == null || !shared.color.equals(prefixColor) || !shared.prefix.equals(prefix)) {
+            shared = new SharedPrefix(prefix, prefixColor, blank().setColor(prefixColor).text(prefix + "> ").freeze());
+            sharedPrefix = shared;
+        }
+
+        return shared.node;
     }
 
     /**
@@ -114,7 +141,8 @@ public class MCMessage {
      * @return The same message.
      */
     public MCMessage setStyle(MessageStyle style) {
-        this.style = style;
+        checkMutable();
+        this.style = Objects.requireNonNull(style);
         return this;
     }
 
@@ -133,12 +161,13 @@ public class MCMessage {
      * @see MCMessage#getColorMode() getColorMode() for details.
      */
     public MCMessage setColorMode(ColorMode mode) {
+        checkMutable();
         this.colorMode = mode;
         return this;
     }
 
     /**
-     * @return The child-messages of this message.
+     * @return The child-messages of this message. If this message is frozen, the list is unmodifiable.
      */
     public List<MCMessage> getChildren() {
         return children;
@@ -146,12 +175,14 @@ public class MCMessage {
 
     /**
      * Edit the style of this message, while maintaining the "builder-style".
+     * Since styles are immutable, the transformer has to return the modified style, e.g. {@code style -> style.withBold(true)}.
      *
      * @param transformer A function that can be used to transform the style.
      * @return The same message.
      */
     public MCMessage editStyle(Function<MessageStyle, ? extends MessageStyle> transformer) {
-        this.style = Objects.requireNonNull(transformer).apply(this.style);
+        checkMutable();
+        this.style = Objects.requireNonNull(Objects.requireNonNull(transformer).apply(this.style));
         return this;
     }
 
@@ -162,7 +193,8 @@ public class MCMessage {
      * @return The same message.
      */
     public MCMessage setColor(MessageColor color) {
-        this.style = this.style.setColor(color);
+        checkMutable();
+        this.style = this.style.withColor(color);
         return this;
     }
 
@@ -187,6 +219,7 @@ public class MCMessage {
      * @return The same message.
      */
     public MCMessage text(String text) {
+        checkMutable();
         if (!this.children.isEmpty()) throw new IllegalStateException("A parent node cannot have a text.");
         this.text = Objects.requireNonNull(text);
         return this;
@@ -199,6 +232,7 @@ public class MCMessage {
      * @return The same message.
      */
     public MCMessage then(MCMessage message) {
+        checkMutable();
         if (this.text != null) throw new IllegalStateException("A text node cannot have child nodes.");
         this.children.add(Objects.requireNonNull(message));
         return this;
@@ -250,6 +284,44 @@ public class MCMessage {
         );
     }
 
+    /**
+     * Makes this message and all of its descendants immutable.
+     * Frozen messages can be shared between multiple messages and threads, e.g. as children of other messages.
+     * Any attempt to modify a frozen message results in an {@link IllegalStateException}.
+     *
+     * @return The same message.
+     */
+    public MCMessage freeze() {
+        if (frozen) return this;
+
+        for (MCMessage child : children) {
+            child.freeze();
+        }
+
+        children = freezeList(children);
+        frozen = true;
+
+        return this;
+    }
+
+    /**
+     * @return Whether this message is frozen.
+     * @see #freeze()
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    protected void checkMutable() {
+        if (frozen) throw new IllegalStateException("The message is frozen");
+    }
+
+    static List<MCMessage> freezeList(List<MCMessage> list) {
+        if (list.isEmpty()) return Collections.emptyList();
+
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
     @Override
     public String toString() {
         return "MCMessage{" + "colorMode=" + colorMode +
@@ -277,15 +349,33 @@ public class MCMessage {
             super(color, colorMode);
         }
 
+        protected MCTranslationMessage(MessageStyle style, ColorMode colorMode) {
+            super(style, colorMode);
+        }
+
         public List<MCMessage> getSubstitutes() {
             return substitutes;
         }
 
         public MCTranslationMessage setSubstitutes(List<MCMessage> substitutes) {
+            checkMutable();
             this.substitutes = substitutes;
             return this;
         }
 
+        @Override
+        public MCMessage freeze() {
+            if (frozen) return this;
+
+            for (MCMessage substitute : substitutes) {
+                substitute.freeze();
+            }
+
+            substitutes = freezeList(substitutes);
+
+            return super.freeze();
+        }
+
         @Override
         public String toString() {
             return "MCTranslationMessage{" + "colorMode=" + colorMode +
@@ -297,17 +387,96 @@ public class MCMessage {
         }
     }
 
-    public static class MessageStyle {
+    /**
+     * An immutable text style. The color and the formatting flags are packed into a single int,
+     * so that styles are cheap to compare and safe to share between messages and threads.
+     * Styles without color or with one of the legacy {@link MessageColor}s are interned, use {@link #of(MessageColor)}
+     * and the {@code with} methods to obtain them.
+     */
+    public static final class MessageStyle {
+
+        private static final int RGB_MASK = 0xFFFFFF,
+                HAS_COLOR = 1 << 24,
+                OBFUSCATED = 1 << 25,
+                BOLD = 1 << 26,
+                STRIKETHROUGH = 1 << 27,
+                UNDERLINE = 1 << 28,
+                ITALIC = 1 << 29,
+                RESET = 1 << 30;
+
+        private static final int FLAGS_SHIFT = 25, FLAG_COMBINATIONS = 1 << 6;
+
+        /** Interned styles, indexed by legacy color (0 for no color) and flags. */
+        private static final MessageStyle[] INTERNED = new MessageStyle[(MessageColor.LEGACY.length + 1) * FLAG_COMBINATIONS];
+
+        static {
+            for (int color = 0; color <= MessageColor.LEGACY.length; color++) {
+                int colorBits = color == 0 ? 0 : HAS_COLOR | MessageColor.LEGACY[color - 1].getRGB();
+
+                for (int flags = 0; flags < FLAG_COMBINATIONS; flags++) {
+                    INTERNED[color * FLAG_COMBINATIONS + flags] = new MessageStyle(colorBits | flags << FLAGS_SHIFT);
+                }
+            }
+        }
 
-        @Nullable private MessageColor color;
-        private boolean obfuscated = false, bold = false, strikethrough = false, underline = false, italic = false, reset = false;
+        /** The style without color and formatting. */
+        public static final MessageStyle EMPTY = fromPacked(0);
 
+        private final int packed;
+        @Nullable
+        private final MessageColor color;
+
+        /**
+         * @deprecated Use {@link #EMPTY}, which is interned.
+         */
+        @Deprecated
         public MessageStyle() {
-            this(null);
+            this(0);
         }
 
+        /**
+         * @param color The color, or null for no color.
+         * @deprecated Use {@link #of(MessageColor)}, which interns the legacy colors.
+         */
+        @Deprecated
         public MessageStyle(@Nullable MessageColor color) {
-            this.color = color;
+            this(color == null ? 0 : HAS_COLOR | color.getRGB());
+        }
+
+        private MessageStyle(int packed) {
+            this.packed = packed;
+            this.color = (packed & HAS_COLOR) != 0 ? MessageColor.fromRGB(packed & RGB_MASK) : null;
+        }
+
+        /**
+         * @param color The color, or null for no color.
+         * @return The style with the given color and no formatting.
+         */
+        public static MessageStyle of(@Nullable MessageColor color) {
+            return EMPTY.withColor(color);
+        }
+
+        /**
+         * @param packed A packed style, as returned by {@link #getPacked()}.
+         * @return The style, interned if possible.
+         */
+        public static MessageStyle fromPacked(int packed) {
+            int colorIndex = 0;
+
+            if ((packed & HAS_COLOR) != 0) {
+                colorIndex = MessageColor.legacyIndex(packed & RGB_MASK) + 1;
+                if (colorIndex == 0) return new MessageStyle(packed);  // custom colors are not interned
+            }
+
+            return INTERNED[colorIndex * FLAG_COMBINATIONS + (packed >>> FLAGS_SHIFT & FLAG_COMBINATIONS - 1)];
+        }
+
+        /**
+         * @return The packed representation of this style.
+         * Bits 0-23 contain the RGB color, bit 24 is set if there is a color and bits 25-30 contain the formatting flags.
+         */
+        public int getPacked() {
+            return packed;
         }
 
         @Nullable
@@ -315,79 +484,181 @@ public class MCMessage {
             return color;
         }
 
-        public MessageStyle setColor(MessageColor color) {
-            this.color = color;
-            return this;
+        public boolean hasColor() {
+            return (packed & HAS_COLOR) != 0;
         }
 
         public boolean isObfuscated() {
-            return obfuscated;
+            return (packed & OBFUSCATED) != 0;
         }
 
-        public MessageStyle setObfuscated(boolean obfuscated) {
-            this.obfuscated = obfuscated;
-            return this;
+        public boolean isBold() {
+            return (packed & BOLD) != 0;
         }
 
-        public boolean isBold() {
-            return bold;
+        public boolean isStrikethrough() {
+            return (packed & STRIKETHROUGH) != 0;
         }
 
-        public MessageStyle setBold(boolean bold) {
-            this.bold = bold;
-            return this;
+        public boolean isUnderline() {
+            return (packed & UNDERLINE) != 0;
         }
 
-        public boolean isStrikethrough() {
-            return strikethrough;
+        public boolean isItalic() {
+            return (packed & ITALIC) != 0;
         }
 
-        public MessageStyle setStrikethrough(boolean strikethrough) {
-            this.strikethrough = strikethrough;
-            return this;
+        public boolean isReset() {
+            return (packed & RESET) != 0;
         }
 
-        public boolean isUnderline() {
-            return underline;
+        /**
+         * @param color The new color, or null for no color.
+         * @return A style like this one, but with the given color.
+         */
+        public MessageStyle withColor(@Nullable MessageColor color) {
+            int colorBits = color == null ? 0 : HAS_COLOR | color.getRGB();
+            return with(packed & ~(HAS_COLOR | RGB_MASK) | colorBits);
         }
 
-        public MessageStyle setUnderline(boolean underline) {
-            this.underline = underline;
-            return this;
+        public MessageStyle withObfuscated(boolean obfuscated) {
+            return withFlag(OBFUSCATED, obfuscated);
         }
 
-        public boolean isItalic() {
-            return italic;
+        public MessageStyle withBold(boolean bold) {
+            return withFlag(BOLD, bold);
         }
 
-        public MessageStyle setItalic(boolean italic) {
-            this.italic = italic;
-            return this;
+        public MessageStyle withStrikethrough(boolean strikethrough) {
+            return withFlag(STRIKETHROUGH, strikethrough);
         }
 
-        public boolean isReset() {
-            return reset;
+        public MessageStyle withUnderline(boolean underline) {
+            return withFlag(UNDERLINE, underline);
+        }
+
+        public MessageStyle withItalic(boolean italic) {
+            return withFlag(ITALIC, italic);
+        }
+
+        public MessageStyle withReset(boolean reset) {
+            return withFlag(RESET, reset);
+        }
+
+        MessageStyle withColorOf(MessageStyle other) {
+            return with(packed & ~(HAS_COLOR | RGB_MASK) | other.packed & (HAS_COLOR | RGB_MASK));
+        }
+
+        private MessageStyle withFlag(int flag, boolean value) {
+            return with(value ? packed | flag : packed & ~flag);
+        }
+
+        private MessageStyle with(int packed) {
+            return packed == this.packed ? this : fromPacked(packed);
+        }
+
+        /**
+         * @deprecated Styles are immutable, use {@link #withColor(MessageColor)}. This method does not change this style,
+         * it returns a new style, e.g. for {@code msg.editStyle(style -> style.setColor(...))}.
+         */
+        @Deprecated
+        public MessageStyle setColor(MessageColor color) {
+            return withColor(color);
         }
 
+        /**
+         * @deprecated Styles are immutable, use {@link #withObfuscated(boolean)}. This method does not change this style,
+         * it returns a new style, e.g. for {@code msg.editStyle(style -> style.setObfuscated(...))}.
+         */
+        @Deprecated
+        public MessageStyle setObfuscated(boolean obfuscated) {
+            return withObfuscated(obfuscated);
+        }
+
+        /**
+         * @deprecated Styles are immutable, use {@link #withBold(boolean)}. This method does not change this style,
+         * it returns a new style, e.g. for {@code msg.editStyle(style -> style.setBold(...))}.
+         */
+        @Deprecated
+        public MessageStyle setBold(boolean bold) {
+            return withBold(bold);
+        }
+
+        /**
+         * @deprecated Styles are immutable, use {@link #withStrikethrough(boolean)}. This method does not change this style,
+         * it returns a new style, e.g. for {@code msg.editStyle(style -> style.setStrikethrough(...))}.
+         */
+        @Deprecated
+        public MessageStyle setStrikethrough(boolean strikethrough) {
+            return withStrikethrough(strikethrough);
+        }
+
+        /**
+         * @deprecated Styles are immutable, use {@link #withUnderline(boolean)}. This method does not change this style,
+         * it returns a new style, e.g. for {@code msg.editStyle(style -> style.setUnderline(...))}.
+         */
+        @Deprecated
+        public MessageStyle setUnderline(boolean underline) {
+            return withUnderline(underline);
+        }
+
+        /**
+         * @deprecated Styles are immutable, use {@link #withItalic(boolean)}. This method does not change this style,
+         * it returns a new style, e.g. for {@code msg.editStyle(style -> style.setItalic(...))}.
+         */
+        @Deprecated
+        public MessageStyle setItalic(boolean italic) {
+            return withItalic(italic);
+        }
+
+        /**
+         * @deprecated Styles are immutable, use {@link #withReset(boolean)}. This method does not change this style,
+         * it returns a new style, e.g. for {@code msg.editStyle(style -> style.setReset(...))}.
+         */
+        @Deprecated
         public MessageStyle setReset(boolean reset) {
-            this.reset = reset;
-            return this;
+            return withReset(reset);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return packed == ((MessageStyle) o).packed;
+        }
+
+        @Override
+        public int hashCode() {
+            return packed;
         }
 
         @Override
         public String toString() {
             return "MessageStyle{" +
-                    "color=" + color +
-                    ", obfuscated=" + obfuscated +
-                    ", bold=" + bold +
-                    ", strikethrough=" + strikethrough +
-                    ", underline=" + underline +
-                    ", italic=" + italic +
-                    ", reset=" + reset +
+                    "color=" + getColor() +
+                    ", obfuscated=" + isObfuscated() +
+                    ", bold=" + isBold() +
+                    ", strikethrough=" + isStrikethrough() +
+                    ", underline=" + isUnderline() +
+                    ", italic=" + isItalic() +
+                    ", reset=" + isReset() +
                     '}';
         }
     }
 
+    private static class SharedPrefix {
+
+        private final String prefix;
+        private final MessageColor color;
+        private final MCMessage node;
+
+        SharedPrefix(String prefix, MessageColor color, MCMessage node) {
+            this.prefix = prefix;
+            this.color = color;
+            this.node = node;
+        }
+    }
+
     public static class MessageColor {
 
         public static final MessageColor BLACK = new MessageColor(0, 0, 0),
@@ -403,23 +674,76 @@ public class MCMessage {
                 GREEN = new MessageColor(85, 255, 85),
                 AQUA = new MessageColor(85, 255, 255),
                 RED = new MessageColor(255, 85, 85),
-                LIGHT_PURPLE = new MessageColor(255, 855, 255),
+                LIGHT_PURPLE = new MessageColor(255, 85, 255),
                 YELLOW = new MessageColor(255, 255, 85),
                 WHITE = new MessageColor(255, 255, 255);
 
+        /** The 16 legacy chat colors, ordered by their legacy color code. */
+        static final MessageColor[] LEGACY = new MessageColor[] {
+                BLACK, DARK_BLUE, DARK_GREEN, DARK_AQUA, DARK_RED, DARK_PURPLE, GOLD, GRAY,
+                DARK_GRAY, BLUE, GREEN, AQUA, RED, LIGHT_PURPLE, YELLOW, WHITE
+        };
+
+        /** The indices of the legacy colors in {@link #LEGACY}, by their RGB value. */
+        private static final Map<Integer, Integer> LEGACY_INDEX = new HashMap<>();
+
+        static {
+            for (int i = 0; i < LEGACY.length; i++) {
+                LEGACY_INDEX.put(LEGACY[i].getRGB(), i);
+            }
+        }
+
         public final int red, green, blue;
 
         /**
-         * @param red   Red component. [0.0;255.0]
-         * @param green Green component. [0.0;255.0]
-         * @param blue  Blue component. [0.0;255.0]
+         * @param red   Red component. [0;255]
+         * @param green Green component. [0;255]
+         * @param blue  Blue component. [0;255]
          */
         public MessageColor(int red, int green, int blue) {
+            if ((red | green | blue) >>> 8 != 0) {
+                throw new IllegalArgumentException(String.format("Color components must be in range [0;255], got (%s, %s, %s)", red, green, blue));
+            }
+
             this.red = red;
             this.green = green;
             this.blue = blue;
         }
 
+        /**
+         * @param rgb The color as 0xRRGGBB.
+         * @return The legacy color constant with that value, or a new color.
+         */
+        public static MessageColor fromRGB(int rgb) {
+            int index = legacyIndex(rgb);
+            if (index != -1) return LEGACY[index];
+
+            return new MessageColor(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF);
+        }
+
+        static int legacyIndex(int rgb) {
+            return LEGACY_INDEX.getOrDefault(rgb, -1);
+        }
+
+        /**
+         * @return This color as 0xRRGGBB.
+         */
+        public int getRGB() {
+            return red << 16 | green << 8 | blue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return getRGB() == ((MessageColor) o).getRGB();
+        }
+
+        @Override
+        public int hashCode() {
+            return getRGB();
+        }
+
         @Override
         public String toString() {
             return String.format("rgb(%s; %s; %s)", this.red, this.green, this.blue);
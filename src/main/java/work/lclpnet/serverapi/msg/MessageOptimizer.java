@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flattens messages, so that they serialize to smaller text component JSON.
+ * Messages built with the builder methods are often deeply nested, e.g. {@link MCMessage#prefixed()} or {@link MCMessage#thenDot()}.
+ * The optimized message is rendered the same way by the {@link JsonMessageSerializer}, but:
+ * <ul>
+ *     <li>{@link MCMessage.ColorMode#INHERIT} is resolved, every node has its effective style.</li>
+ *     <li>Parent nodes are removed, their text and translation nodes are moved to the top level node.</li>
+ *     <li>Adjacent text nodes with the same effective style are merged and empty text nodes are removed.</li>
+ *     <li>Nodes without color, that are placed below a colored node, are marked with
+ *     {@link MCMessage.MessageStyle#isReset() reset}, so that the serializer doesn't give them the parent color.</li>
+ * </ul>
+ * Translation substitutes are optimized as well. {@link MessageTemplate.Slot Slots} are kept in place,
+ * so that templates can be optimized once, see {@link MessageTemplate#createCompact(Object...)}.<br>
+ * <br>
+ * Other renderers might interpret reset differently, e.g. as the legacy reset code,
+ * so optimized messages should only be passed to a {@link JsonMessageSerializer}, see {@link JsonMessageSerializer#toCompactJson(MCMessage, String)}.
+ */
+public class MessageOptimizer {
+
+    private MessageOptimizer() {}
+
+    /**
+     * Optimizes a message. The given message is not modified.
+     *
+     * @param msg The message.
+     * @return A frozen, optimized message, which might share frozen nodes with the given message.
+     */
+    public static MCMessage optimize(MCMessage msg) {
+        return optimize(msg, MCMessage.MessageStyle.EMPTY).freeze();
+    }
+
+    private static MCMessage optimize(MCMessage msg, MCMessage.MessageStyle parent) {
+        MCMessage.MessageStyle style = JsonMessageSerializer.effectiveStyle(msg, parent);
+
+        if (msg.isTextNode() || msg instanceof MessageTemplate.Slot) {
+            List<MCMessage> leaves = new ArrayList<>(1);
+            addLeaf(msg, style, parent, parent, leaves);
+
+            return leaves.isEmpty() ? new MCMessage(localStyle(style, parent), MCMessage.ColorMode.LOCAL) : leaves.get(0);
+        }
+
+        MCMessage.MessageStyle containerStyle = localStyle(style, parent);
+        List<MCMessage> leaves = new ArrayList<>();
+        flatten(msg.getChildren(), style, style, leaves);
+
+        // a single leaf can replace the container, if it looks the same without it
+        if (leaves.size() == 1) {
+            MCMessage leaf = leaves.get(0);
+
+            if (!isMessageSlot(leaf)
+                    && JsonMessageSerializer.effectiveStyle(leaf, parent).getPacked() == JsonMessageSerializer.effectiveStyle(leaf, style).getPacked()) {
+                return leaf;
+            }
+        }
+
+        MCMessage container = new MCMessage(containerStyle, MCMessage.ColorMode.LOCAL);
+        container.children = leaves;
+
+        return container;
+    }
+
+    /**
+     * Adds the leaves of messages to a list.
+     *
+     * @param messages  The messages to flatten.
+     * @param parent    The effective style of the parent of the messages.
+     * @param container The effective style of the node the leaves are added to.
+     * @param leaves    The list of leaves.
+     */
+    private static void flatten(List<MCMessage> messages, MCMessage.MessageStyle parent, MCMessage.MessageStyle container,
+                                List<MCMessage> leaves) {
+        for (MCMessage msg : messages) {
+            MCMessage.MessageStyle style = JsonMessageSerializer.effectiveStyle(msg, parent);
+
+            if (msg.isTextNode() || msg instanceof MessageTemplate.Slot) {
+                addLeaf(msg, style, parent, container, leaves);
+            } else {
+                flatten(msg.getChildren(), style, container, leaves);
+            }
+        }
+    }
+
+    private static void addLeaf(MCMessage msg, MCMessage.MessageStyle style, MCMessage.MessageStyle parent,
+                                MCMessage.MessageStyle container, List<MCMessage> leaves) {
+        MCMessage.MessageStyle local = localStyle(style, container);
+
+        if (msg instanceof MessageTemplate.Slot) {
+            MessageTemplate.Slot slot = (MessageTemplate.Slot) msg;
+
+            MCMessage copy = slot.withStyle(local, optimizeAll(slot.getSubstitutes(), style));
+
+            if (slot.getKind() != MessageTemplate.Slot.Kind.MESSAGE || parent.getPacked() == container.getPacked()) {
+                leaves.add(copy);
+            } else {
+                // the style of the argument is resolved at render time, so it needs its original parent style
+                MCMessage wrapper = new MCMessage(localStyle(parent, container), MCMessage.ColorMode.LOCAL);
+                wrapper.children = new ArrayList<>(1);
+                wrapper.children.add(copy);
+                leaves.add(wrapper);
+            }
+
+            return;
+        }
+
+        if (msg instanceof MCMessage.MCTranslationMessage) {
+            MCMessage.MCTranslationMessage translation = new MCMessage.MCTranslationMessage(local, MCMessage.ColorMode.LOCAL);
+            translation.substitutes = optimizeAll(((MCMessage.MCTranslationMessage) msg).getSubstitutes(), style);
+            translation.text = msg.getText();
+
+            leaves.add(translation);
+            return;
+        }
+
+        String text = msg.getText();
+        if (text.isEmpty()) return;
+
+        int lastIndex = leaves.size() - 1;
+        MCMessage last = lastIndex >= 0 ? leaves.get(lastIndex) : null;
+
+        if (last != null && isPlainText(last) && last.getStyle().getPacked() == local.getPacked()) {
+            if (last.isFrozen()) {
+                MCMessage merged = new MCMessage(local, MCMessage.ColorMode.LOCAL);
+                merged.text = last.getText() + text;
+                leaves.set(lastIndex, merged);
+            } else {
+                // nodes that are not frozen were created by the optimizer and can be modified
+                last.text = last.getText() + text;
+            }
+
+            return;
+        }
+
+        // frozen nodes that are already optimal are shared, e.g. the prefix node
+        if (msg.isFrozen() && msg.getClass() == MCMessage.class && msg.getColorMode() == MCMessage.ColorMode.LOCAL
+                && msg.getStyle().getPacked() == local.getPacked()) {
+            leaves.add(msg);
+            return;
+        }
+
+        MCMessage leaf = new MCMessage(local, MCMessage.ColorMode.LOCAL);
+        leaf.text = text;
+        leaves.add(leaf);
+    }
+
+    private static List<MCMessage> optimizeAll(List<MCMessage> messages, MCMessage.MessageStyle parent) {
+        if (messages.isEmpty()) return new ArrayList<>(0);
+
+        List<MCMessage> optimized = new ArrayList<>(messages.size());
+
+        for (MCMessage msg : messages) {
+            optimized.add(optimize(msg, parent));
+        }
+
+        return optimized;
+    }
+
+    /**
+     * Determines the style a node needs, to be displayed with an effective style below a parent with another effective style.
+     *
+     * @param style  The effective style of the node.
+     * @param parent The effective style of the parent.
+     * @return The style for the node, with {@link MCMessage.ColorMode#LOCAL}.
+     */
+    private static MCMessage.MessageStyle localStyle(MCMessage.MessageStyle style, MCMessage.MessageStyle parent) {
+        // without reset, a node without color would inherit the color of the parent
+        if (!style.hasColor() && parent.hasColor() && !style.isReset()) return style.withReset(true);
+
+        return style;
+    }
+
+    private static boolean isPlainText(MCMessage msg) {
+        return msg.getClass() == MCMessage.class && msg.isTextNode();
+    }
+
+    private static boolean isMessageSlot(MCMessage msg) {
+        return msg instanceof MessageTemplate.Slot && ((MessageTemplate.Slot) msg).getKind() == MessageTemplate.Slot.Kind.MESSAGE;
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+/**
+ * Renders messages to a platform specific representation, e.g. text component JSON with {@link JsonMessageSerializer#toJson(MCMessage, String)}.
+ *
+ * @param <R> The type of the rendered output.
+ */
+@FunctionalInterface
+public interface MessageRenderer<R> {
+
+    /**
+     * Renders a message.
+     *
+     * @param msg      The message.
+     * @param language The language to translate to.
+     * @return The rendered output.
+     */
+    R render(MCMessage msg, String language);
+}
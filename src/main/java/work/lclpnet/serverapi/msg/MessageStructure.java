@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Structural hashing, comparison and copying of messages.
+ * Two messages are structurally equal, if they would be rendered the same in every language.
+ */
+class MessageStructure {
+
+    private MessageStructure() {}
+
+    static int hash(MCMessage msg) {
+        int hash = msg instanceof MCMessage.MCTranslationMessage ? 31 : 17;
+        hash = 31 * hash + msg.getColorMode().ordinal();
+        hash = 31 * hash + msg.getStyle().getPacked();
+        hash = 31 * hash + Objects.hashCode(msg.getText());
+        hash = 31 * hash + hash(msg.getChildren());
+
+        if (msg instanceof MCMessage.MCTranslationMessage) {
+            hash = 31 * hash + hash(((MCMessage.MCTranslationMessage) msg).getSubstitutes());
+        }
+
+        return hash;
+    }
+
+    private static int hash(List<MCMessage> messages) {
+        int hash = 1;
+
+        for (MCMessage msg : messages) {
+            hash = 31 * hash + hash(msg);
+        }
+
+        return hash;
+    }
+
+    static boolean equals(MCMessage a, MCMessage b) {
+        if (a == b) return true;
+
+        if (a.getClass() != b.getClass()
+                || a.getColorMode() != b.getColorMode()
+                || a.getStyle().getPacked() != b.getStyle().getPacked()
+                || !Objects.equals(a.getText(), b.getText())
+                || !equals(a.getChildren(), b.getChildren())) {
+            return false;
+        }
+
+        return !(a instanceof MCMessage.MCTranslationMessage)
+                || equals(((MCMessage.MCTranslationMessage) a).getSubstitutes(), ((MCMessage.MCTranslationMessage) b).getSubstitutes());
+    }
+
+    private static boolean equals(List<MCMessage> a, List<MCMessage> b) {
+        if (a == b) return true;
+
+        int size = a.size();
+        if (size != b.size()) return false;
+
+        for (int i = 0; i < size; i++) {
+            if (!equals(a.get(i), b.get(i))) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Creates a frozen copy of a message, so that it can't be changed by its owner.
+     * Frozen messages are returned as they are.
+     *
+     * @param msg The message.
+     * @return A frozen message that is structurally equal to the given message.
+     */
+    static MCMessage frozenCopy(MCMessage msg) {
+        if (msg.isFrozen()) return msg;
+
+        MCMessage copy;
+
+        if (msg instanceof MCMessage.MCTranslationMessage) {
+            copy = new MCMessage.MCTranslationMessage(msg.style, msg.colorMode)
+                    .setSubstitutes(frozenCopies(((MCMessage.MCTranslationMessage) msg).substitutes));
+        } else {
+            copy = new MCMessage(msg.style, msg.colorMode);
+        }
+
+        copy.text = msg.text;
+        copy.children = frozenCopies(msg.children);
+
+        return copy.freeze();
+    }
+
+    private static List<MCMessage> frozenCopies(List<MCMessage> messages) {
+        List<MCMessage> copies = new ArrayList<>(messages.size());
+
+        for (MCMessage msg : messages) {
+            copies.add(frozenCopy(msg));
+        }
+
+        return copies;
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A precompiled, immutable message with placeholders, called {@link Slot slots}, for its variable parts.
+ * The message is built and {@link MCMessage#freeze() frozen} once.
+ * {@link #create(Object...)} then only copies the nodes on the paths to the slots; every other part is shared with the template.
+ * For the {@link JsonMessageSerializer}, the template also keeps a {@link MessageOptimizer optimized} copy of its message,
+ * see {@link #createCompact(Object...)}.<br>
+ * <br>
+ * Example:
+ * <pre>{@code
+ * MessageTemplate template = MessageTemplate.of(MCMessage.prefixed()
+ *         .thenTranslate("stats.loading", MessageTemplate.text(0).setColor(MCMessage.MessageColor.YELLOW)));
+ *
+ * bridge.sendMessageTo(playerUuid, template.create(name));
+ * }</pre>
+ * Templates are thread-safe.
+ */
+public class MessageTemplate {
+
+    private final MCMessage message;
+    @Nullable
+    private final Node root;
+    private final int arity;
+    @Nullable
+    private volatile MessageTemplate compact = null;
+
+    protected MessageTemplate(MCMessage message) {
+        this.message = Objects.requireNonNull(message).freeze();
+
+        int[] arity = new int[] {0};
+        this.root = compile(this.message, arity);
+        this.arity = arity[0];
+    }
+
+    /**
+     * Compiles a template. The given message is frozen and must not be modified afterwards.
+     *
+     * @param message The message, which may contain slots.
+     * @return The compiled template.
+     */
+    public static MessageTemplate of(MCMessage message) {
+        return new MessageTemplate(message);
+    }
+
+    /**
+     * Creates a slot, which is replaced by a message argument.
+     * The style of the slot is ignored, the argument is inserted as it is.
+     *
+     * @param index The index of the argument.
+     * @return A new slot.
+     */
+    public static Slot slot(int index) {
+        return new Slot(Slot.Kind.MESSAGE, index, MCMessage.MessageStyle.EMPTY, MCMessage.ColorMode.LOCAL);
+    }
+
+    /**
+     * Creates a slot, which is replaced by a text node with the style of the slot.
+     * Any argument is accepted, it is converted with {@link String#valueOf(Object)}.
+     *
+     * @param index The index of the argument.
+     * @return A new slot.
+     */
+    public static Slot text(int index) {
+        return new Slot(Slot.Kind.TEXT, index, MCMessage.MessageStyle.EMPTY, MCMessage.ColorMode.LOCAL);
+    }
+
+    /**
+     * Creates a slot, which is replaced by a translation of the translation key argument, like {@link MCMessage#thenTranslate(String, MCMessage...)}.
+     *
+     * @param index       The index of the translation key argument.
+     * @param substitutes Substitutes for the translation, which may contain slots themselves.
+     * @return A new slot.
+     */
+    public static Slot translate(int index, MCMessage... substitutes) {
+        Slot slot = new Slot(Slot.Kind.TRANSLATION, index, MCMessage.MessageStyle.of(MCMessage.MessageColor.WHITE), MCMessage.ColorMode.INHERIT);
+        slot.substitutes = Arrays.asList(substitutes);
+        return slot;
+    }
+
+    /**
+     * @return The frozen message of this template, which still contains the slots.
+     */
+    public MCMessage getMessage() {
+        return message;
+    }
+
+    /**
+     * @return The number of arguments required by {@link #create(Object...)}.
+     */
+    public int getArity() {
+        return arity;
+    }
+
+    /**
+     * Creates a message from this template. All parts of the message without slots are shared with the template and are frozen.
+     * If the template has no slots at all, the frozen template message itself is returned.
+     *
+     * @param arguments The arguments for the slots, by slot index.
+     * @return The created message.
+     * @throws IllegalArgumentException If there are less arguments than slots, or an argument has the wrong type for its slot.
+     */
+    public MCMessage create(Object... arguments) {
+        if (arguments.length < arity) {
+            throw new IllegalArgumentException(String.format("Expected %s arguments, but got %s", arity, arguments.length));
+        }
+
+        if (root == null) return message;
+
+        return instantiate(root, arguments);
+    }
+
+    /**
+     * Creates a message from the {@link MessageOptimizer optimized} message of this template.
+     * The optimized message is built once, when this method is called the first time.
+     * Like optimized messages, the created message should only be passed to a {@link JsonMessageSerializer},
+     * e.g. with {@link JsonMessageSerializer#toCompactJson(MessageTemplate, String, Object...)}.
+     * Message arguments are inserted as they are, they are not optimized.
+     *
+     * @param arguments The arguments for the slots, by slot index.
+     * @return The created, optimized message.
+     * @throws IllegalArgumentException If there are less arguments than slots, or an argument has the wrong type for its slot.
+     */
+    public MCMessage createCompact(Object... arguments) {
+        MessageTemplate compact = this.compact;
+
+        if (compact == null) {
+            // templates are immutable, so concurrent callers that optimize the message twice get equal templates
+            compact = new MessageTemplate(MessageOptimizer.optimize(message));
+            compact.compact = compact;
+            this.compact = compact;
+        }
+
+        return compact.create(arguments);
+    }
+
+    @Nullable
+    private static Node compile(MCMessage msg, int[] arity) {
+        if (msg instanceof Slot) {
+            Slot slot = (Slot) msg;
+            arity[0] = Math.max(arity[0], slot.index + 1);
+
+            return new Node(msg, null, compileAll(slot.substitutes, arity));
+        }
+
+        Node[] children = compileAll(msg.children, arity);
+        Node[] substitutes = null;
+
+        if (msg instanceof MCMessage.MCTranslationMessage) {
+            substitutes = compileAll(((MCMessage.MCTranslationMessage) msg).substitutes, arity);
+        }
+
+        if (children == null && substitutes == null) return null;  // shared as it is
+
+        return new Node(msg, children, substitutes);
+    }
+
+    @Nullable
+    private static Node[] compileAll(List<MCMessage> messages, int[] arity) {
+        Node[] nodes = null;
+
+        for (int i = 0, size = messages.size(); i < size; i++) {
+            Node node = compile(messages.get(i), arity);
+            if (node == null) continue;
+
+            if (nodes == null) nodes = new Node[size];
+            nodes[i] = node;
+        }
+
+        return nodes;
+    }
+
+    private static MCMessage instantiate(Node node, Object[] arguments) {
+        MCMessage source = node.source;
+
+        if (source instanceof Slot) {
+            Slot slot = (Slot) source;
+            return slot.fill(arguments[slot.index], instantiateAll(slot.substitutes, node.substitutes, arguments));
+        }
+
+        MCMessage copy;
+
+        if (source instanceof MCMessage.MCTranslationMessage) {
+            List<MCMessage> substitutes = ((MCMessage.MCTranslationMessage) source).substitutes;
+
+            copy = new MCMessage.MCTranslationMessage(source.style, source.colorMode)
+                    .setSubstitutes(instantiateAll(substitutes, node.substitutes, arguments));
+        } else {
+            copy = new MCMessage(source.style, source.colorMode);
+        }
+
+        copy.text = source.text;
+        copy.children = instantiateAll(source.children, node.children, arguments);
+
+        return copy;
+    }
+
+    private static List<MCMessage> instantiateAll(List<MCMessage> sources, @Nullable Node[] nodes, Object[] arguments) {
+        if (nodes == null) return sources.isEmpty() ? new ArrayList<>(0) : new ArrayList<>(sources);
+
+        List<MCMessage> list = new ArrayList<>(sources.size());
+
+        for (int i = 0; i < nodes.length; i++) {
+            Node node = nodes[i];
+            list.add(node != null ? instantiate(node, arguments) : sources.get(i));
+        }
+
+        return list;
+    }
+
+    /**
+     * A placeholder in a {@link MessageTemplate}. Slots can be styled like other messages,
+     * but they can't have a text or children.
+     */
+    public static class Slot extends MCMessage {
+
+        private final Kind kind;
+        private final int index;
+        private List<MCMessage> substitutes = new ArrayList<>(0);
+
+        protected Slot(Kind kind, int index, MCMessage.MessageStyle style, MCMessage.ColorMode colorMode) {
+            super(style, colorMode);
+
+            if (index < 0) throw new IllegalArgumentException("The slot index must not be negative");
+
+            this.kind = kind;
+            this.index = index;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return The substitutes of a {@link Kind#TRANSLATION} slot.
+         */
+        public List<MCMessage> getSubstitutes() {
+            return substitutes;
+        }
+
+        Slot withStyle(MCMessage.MessageStyle style, List<MCMessage> substitutes) {
+            Slot slot = new Slot(kind, index, style, MCMessage.ColorMode.LOCAL);
+            slot.substitutes = substitutes;
+            return slot;
+        }
+
+        @Override
+        public MCMessage text(String text) {
+            throw new IllegalStateException("A slot cannot have a text.");
+        }
+
+        @Override
+        public MCMessage then(MCMessage message) {
+            throw new IllegalStateException("A slot cannot have child nodes.");
+        }
+
+        @Override
+        public MCMessage freeze() {
+            if (frozen) return this;
+
+            for (MCMessage substitute : substitutes) {
+                substitute.freeze();
+            }
+
+            substitutes = freezeList(substitutes);
+
+            return super.freeze();
+        }
+
+        private MCMessage fill(@Nullable Object argument, List<MCMessage> substitutes) {
+            switch (kind) {
+                case MESSAGE:
+                    if (!(argument instanceof MCMessage)) {
+                        throw new IllegalArgumentException(String.format("Argument %s must be a message", index));
+                    }
+                    return (MCMessage) argument;
+                case TEXT:
+                    return new MCMessage(style, colorMode).text(String.valueOf(argument));
+                case TRANSLATION:
+                    if (!(argument instanceof String)) {
+                        throw new IllegalArgumentException(String.format("Argument %s must be a translation key", index));
+                    }
+                    return new MCMessage.MCTranslationMessage(style, colorMode)
+                            .setSubstitutes(substitutes)
+                            .text((String) argument);
+                default:
+                    throw new IllegalStateException("Unknown slot kind " + kind);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Slot{" + "kind=" + kind +
+                    ", index=" + index +
+                    ", colorMode=" + colorMode +
+                    ", style=" + style +
+                    ", substitutes=" + substitutes +
+                    '}';
+        }
+
+        public enum Kind {
+            MESSAGE,
+            TEXT,
+            TRANSLATION
+        }
+    }
+
+    private static class Node {
+
+        private final MCMessage source;
+        @Nullable
+        private final Node[] children;
+        @Nullable
+        private final Node[] substitutes;
+
+        Node(MCMessage source, @Nullable Node[] children, @Nullable Node[] substitutes) {
+            this.source = source;
+            this.children = children;
+            this.substitutes = substitutes;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A bounded LRU cache of rendered messages, which renders messages with the same structure, language and
+ * substitutes only once. Messages are compared by their structure, so messages built anew for every send can be cached as well.
+ * Messages created from a {@link MessageTemplate} can be looked up by template and arguments instead,
+ * which avoids comparing the message structure.<br>
+ * <br>
+ * Rendered messages depend on the translations, so the cache must be invalidated when they are reloaded,
+ * e.g. with {@link #invalidateOnReload(ServerTranslations)}.
+ *
+ * @param <R> The type of the rendered output.
+ */
+public class RenderCache<R> implements MessageRenderer<R> {
+
+    private final MessageRenderer<R> renderer;
+    private final int capacity;
+    private final Map<Object, R> entries;
+    private final AtomicLong hits = new AtomicLong(0L), misses = new AtomicLong(0L);
+    private long generation = 0L;
+
+    /**
+     * @param renderer The renderer to render messages that are not cached.
+     * @param capacity The maximum number of cached messages.
+     */
+    public RenderCache(MessageRenderer<R> renderer, int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("The capacity must be greater than 0");
+
+        this.renderer = Objects.requireNonNull(renderer);
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Object, R>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, R> eldest) {
+                return size() > RenderCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Renders a message or gets it from the cache.
+     *
+     * @param msg      The message.
+     * @param language The language to translate to.
+     * @return The rendered output.
+     */
+    @Override
+    public R render(MCMessage msg, String language) {
+        Objects.requireNonNull(msg);
+        Objects.requireNonNull(language);
+
+        MessageKey key = new MessageKey(msg, language, MessageStructure.hash(msg));
+
+        return get(key, () -> new MessageKey(MessageStructure.frozenCopy(msg), language, key.structureHash), () -> renderer.render(msg, language));
+    }
+
+    /**
+     * Renders a message created from a template or gets it from the cache.
+     *
+     * @param template  The template.
+     * @param language  The language to translate to.
+     * @param arguments The arguments for {@link MessageTemplate#create(Object...)}.
+     * @return The rendered output.
+     */
+    public R render(MessageTemplate template, String language, Object... arguments) {
+        Objects.requireNonNull(template);
+        Objects.requireNonNull(language);
+
+        TemplateKey key = new TemplateKey(template, language, arguments);
+
+        return get(key, key::copy, () -> renderer.render(template.create(arguments), language));
+    }
+
+    private <K> R get(K key, Supplier<K> storedKey, Supplier<R> render) {
+        final long generation;
+
+        synchronized (this) {
+            R cached = entries.get(key);
+
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+
+            generation = this.generation;
+        }
+
+        misses.incrementAndGet();
+
+        // rendering happens outside the lock, so two threads might render the same message concurrently, which is harmless
+        R rendered = render.get();
+        if (rendered == null) return null;
+
+        K stored = storedKey.get();
+
+        synchronized (this) {
+            // the output of a render that overlapped with an invalidation might be based on outdated translations
+            if (generation == this.generation) {
+                entries.put(stored, rendered);
+            }
+        }
+
+        return rendered;
+    }
+
+    /**
+     * Removes all cached messages.
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+        generation++;
+    }
+
+    /**
+     * Invalidates this cache, whenever the translations are reloaded.
+     *
+     * @param translations The translations the cached messages are rendered with.
+     * @return This cache.
+     */
+    public RenderCache<R> invalidateOnReload(ServerTranslations translations) {
+        translations.addReloadListener(this::invalidate);
+        return this;
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static class MessageKey {
+
+        private final MCMessage msg;
+        private final String language;
+        private final int structureHash, hash;
+
+        MessageKey(MCMessage msg, String language, int structureHash) {
+            this.msg = msg;
+            this.language = language;
+            this.structureHash = structureHash;
+            this.hash = 31 * structureHash + language.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MessageKey)) return false;
+
+            MessageKey other = (MessageKey) o;
+            return hash == other.hash && language.equals(other.language) && MessageStructure.equals(msg, other.msg);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class TemplateKey {
+
+        private final MessageTemplate template;
+        private final String language;
+        private final Object[] arguments;
+        private final int hash;
+
+        TemplateKey(MessageTemplate template, String language, Object[] arguments) {
+            this(template, language, arguments, hash(template, language, arguments));
+        }
+
+        private TemplateKey(MessageTemplate template, String language, Object[] arguments, int hash) {
+            this.template = template;
+            this.language = language;
+            this.arguments = arguments;
+            this.hash = hash;
+        }
+
+        private static int hash(MessageTemplate template, String language, Object[] arguments) {
+            int hash = 31 * System.identityHashCode(template) + language.hashCode();
+
+            for (Object argument : arguments) {
+                int argumentHash = argument instanceof MCMessage ? MessageStructure.hash((MCMessage) argument) : Objects.hashCode(argument);
+                hash = 31 * hash + argumentHash;
+            }
+
+            return hash;
+        }
+
+        /**
+         * @return A key with copied arguments, which can't be changed by the caller.
+         */
+        TemplateKey copy() {
+            Object[] copy = arguments.clone();
+
+            for (int i = 0; i < copy.length; i++) {
+                if (copy[i] instanceof MCMessage) copy[i] = MessageStructure.frozenCopy((MCMessage) copy[i]);
+            }
+
+            return new TemplateKey(template, language, copy, hash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TemplateKey)) return false;
+
+            TemplateKey other = (TemplateKey) o;
+
+            if (hash != other.hash || template != other.template || !language.equals(other.language)
+                    || arguments.length != other.arguments.length) {
+                return false;
+            }
+
+            for (int i = 0; i < arguments.length; i++) {
+                Object a = arguments[i], b = other.arguments[i];
+
+                if (a instanceof MCMessage && b instanceof MCMessage) {
+                    if (!MessageStructure.equals((MCMessage) a, (MCMessage) b)) return false;
+                } else if (!Objects.equals(a, b)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
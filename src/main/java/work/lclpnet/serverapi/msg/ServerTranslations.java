@@ -13,20 +13,38 @@ import work.lclpnet.translations.Translator;
 import work.lclpnet.translations.loader.translation.TranslationLoader;
 
 import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 public class ServerTranslations {
 
     private final ServerCache cache;
-    private final DefaultLanguageTranslator translator;
+    private final Translator translator;
+    private final Supplier<CompletableFuture<Void>> reloader;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
 
     public ServerTranslations(ServerCache cache, TranslationLoader translationLoader) {
         this(cache, new DefaultLanguageTranslator(translationLoader));
     }
 
     public ServerTranslations(ServerCache cache, DefaultLanguageTranslator translator) {
-        this.cache = cache;
-        this.translator = translator;
+        this(cache, translator, translator::reload);
+    }
+
+    /**
+     * Used by tests and benchmarks, to translate with a fixed set of translations.
+     *
+     * @param cache      The cache to look up preferred languages in.
+     * @param translator The translator to use.
+     * @param reloader   A function that reloads the translations of the translator.
+     */
+    ServerTranslations(ServerCache cache, Translator translator, Supplier<CompletableFuture<Void>> reloader) {
+        this.cache = Objects.requireNonNull(cache);
+        this.translator = Objects.requireNonNull(translator);
+        this.reloader = Objects.requireNonNull(reloader);
     }
 
     @Nullable
@@ -37,6 +55,18 @@ public class ServerTranslations {
         return player.getLanguage();
     }
 
+    /**
+     * Gets the language a player's messages should be translated to.
+     *
+     * @param playerUuid The UUID of the player.
+     * @param language   The language which should be used when the player did not set a preferred language.
+     * @return The preferred network language of the player, or the given language.
+     */
+    public String getLanguage(String playerUuid, String language) {
+        String prefLang = getPreferredLanguage(playerUuid);
+        return prefLang != null ? prefLang : language;
+    }
+
     /**
      * This method gets a server translation for a specific player.
      * The method respects the user set preferred network language.
@@ -48,10 +78,7 @@ public class ServerTranslations {
      * @return The translated string.
      */
     public String getTranslation(String playerUuid, String language, String key, Object... substitutes) {
-        String prefLang = getPreferredLanguage(playerUuid);
-        if (prefLang != null) language = prefLang;
-
-        return translator.translate(language, key, substitutes);
+        return translator.translate(getLanguage(playerUuid, language), key, substitutes);
     }
 
     /**
@@ -64,14 +91,25 @@ public class ServerTranslations {
      * @return The translated string.
      */
     public String getTranslation(String playerUuid, String language, String key) {
-        String prefLang = getPreferredLanguage(playerUuid);
-        if (prefLang != null) language = prefLang;
-
-        return translator.translate(language, key);
+        return translator.translate(getLanguage(playerUuid, language), key);
     }
 
     public CompletableFuture<Void> reloadTranslations() {
-        return translator.reload();
+        return reloader.get().thenRun(() -> reloadListeners.forEach(Runnable::run));
+    }
+
+    /**
+     * Adds a listener that is called, after the translations have been reloaded with {@link #reloadTranslations()}.
+     * It can be used to invalidate caches of translated messages, like a {@link RenderCache}.
+     *
+     * @param listener The listener.
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeReloadListener(Runnable listener) {
+        reloadListeners.remove(listener);
     }
 
     public Translator getTranslator() {
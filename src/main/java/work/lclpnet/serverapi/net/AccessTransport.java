@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import work.lclpnet.lclpnetwork.api.APIAccess;
+import work.lclpnet.lclpnetwork.api.APIResponse;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The default {@link ApiTransport}, which sends requests using an {@link APIAccess}.
+ * {@link APIAccess} requests can't be aborted, so cancelling a returned future only completes it early.
+ * The request keeps running until the HTTP layer is done, which is signalled by {@link TransportFuture#settled(CompletableFuture)}.
+ * For the same reason, the {@link ApiRequest#getTimeoutNanos() timeout} of a request is not passed to the HTTP layer,
+ * which applies its own connect and read timeouts.
+ * Use a custom {@link ApiTransport} to actually abort requests on cancellation or timeout.
+ */
+public class AccessTransport implements ApiTransport {
+
+    private final APIAccess access;
+
+    public AccessTransport(APIAccess access) {
+        this.access = Objects.requireNonNull(access);
+    }
+
+    @Override
+    public CompletableFuture<APIResponse> send(ApiRequest request) {
+        switch (request.getMethod()) {
+            case ApiRequest.GET:
+                return TransportFuture.of(access.get(request.getPath()));
+            case ApiRequest.POST:
+                return TransportFuture.of(access.post(request.getPath(), request.getBody()));
+            default:
+                throw new UnsupportedOperationException(String.format("Unsupported request method '%s'", request.getMethod()));
+        }
+    }
+
+    public APIAccess getAccess() {
+        return access;
+    }
+}
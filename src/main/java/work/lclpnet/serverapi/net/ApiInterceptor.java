@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import work.lclpnet.lclpnetwork.api.APIResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Intercepts the requests of a {@link RequestPipeline}.
+ * Interceptors can be used for timing, retries, request tagging or to short-circuit requests entirely.
+ */
+@FunctionalInterface
+public interface ApiInterceptor {
+
+    /**
+     * Intercepts a request.
+     * Implementations usually call {@link Chain#proceed(ApiRequest)} to pass the (possibly modified) request on.
+     *
+     * @param request The request.
+     * @param chain   The remaining chain, ending with the transport.
+     * @return A completable future that will contain the response.
+     */
+    CompletableFuture<APIResponse> intercept(ApiRequest request, Chain chain);
+
+    interface Chain {
+
+        /**
+         * Passes a request to the next interceptor, or the transport, if there are no more interceptors.
+         *
+         * @param request The request to pass on.
+         * @return A completable future that will contain the response.
+         */
+        CompletableFuture<APIResponse> proceed(ApiRequest request);
+    }
+}
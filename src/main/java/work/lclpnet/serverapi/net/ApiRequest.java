@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import com.google.gson.JsonObject;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable description of a request to the LCLPNetwork API.
+ * Instances are passed through the {@link ApiInterceptor} chain of a {@link RequestPipeline} before they reach the {@link ApiTransport}.
+ */
+public class ApiRequest {
+
+    public static final String GET = "GET", POST = "POST";
+
+    private final String method;
+    private final String path;
+    @Nullable
+    private final JsonObject body;
+    private final Map<String, Object> attributes;
+    private final long timeoutNanos;
+    private final RequestPriority priority;
+
+    protected ApiRequest(String method, String path, @Nullable JsonObject body, Map<String, Object> attributes, long timeoutNanos,
+                         RequestPriority priority) {
+        this.method = Objects.requireNonNull(method);
+        this.path = Objects.requireNonNull(path);
+        this.body = body;
+        this.attributes = attributes;
+        this.timeoutNanos = timeoutNanos;
+        this.priority = Objects.requireNonNull(priority);
+    }
+
+    /**
+     * @param path The API path, e.g. 'api/mc/admin/get-registered-languages'.
+     * @return A new GET request.
+     */
+    public static ApiRequest get(String path) {
+        return new ApiRequest(GET, path, null, Collections.emptyMap(), 0L, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * @param path The API path, e.g. 'api/mc/admin/update-last-seen'.
+     * @param body The JSON body to send.
+     * @return A new POST request.
+     */
+    public static ApiRequest post(String path, JsonObject body) {
+        return new ApiRequest(POST, path, Objects.requireNonNull(body), Collections.emptyMap(), 0L, RequestPriority.INTERACTIVE);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return The API path of this request. It also identifies the endpoint.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    @Nullable
+    public JsonObject getBody() {
+        return body;
+    }
+
+    /**
+     * Creates a copy of this request with another body.
+     * Interceptors should use this instead of modifying the body object, since it might be shared.
+     *
+     * @param body The new body.
+     * @return A new request with the given body.
+     */
+    public ApiRequest withBody(@Nullable JsonObject body) {
+        return new ApiRequest(method, path, body, attributes, timeoutNanos, priority);
+    }
+
+    /**
+     * Attributes can be used to tag a request, so that later interceptors or the transport can act on them.
+     *
+     * @param key The attribute key.
+     * @return The attribute value, or null if there is none.
+     */
+    @Nullable
+    public Object getAttribute(String key) {
+        return attributes.get(key);
+    }
+
+    public Map<String, Object> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Creates a copy of this request with an additional attribute.
+     *
+     * @param key   The attribute key.
+     * @param value The attribute value.
+     * @return A new request with the attribute set.
+     */
+    public ApiRequest withAttribute(String key, Object value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        Map<String, Object> copy = new HashMap<>(attributes);
+        copy.put(key, value);
+
+        return new ApiRequest(method, path, body, copy, timeoutNanos, priority);
+    }
+
+    /**
+     * Transports should abort the request, once the timeout has passed.
+     * The {@link AccessTransport} can't abort requests, it ignores the timeout.
+     *
+     * @return The timeout of this request in nanoseconds, or 0, if the request has no timeout.
+     */
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    public boolean hasTimeout() {
+        return timeoutNanos > 0L;
+    }
+
+    /**
+     * Creates a copy of this request with another timeout.
+     *
+     * @param timeout The timeout, or 0 for no timeout.
+     * @param unit    The unit of the timeout.
+     * @return A new request with the given timeout.
+     */
+    public ApiRequest withTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0L) throw new IllegalArgumentException("The timeout must not be negative");
+        return new ApiRequest(method, path, body, attributes, unit.toNanos(timeout), priority);
+    }
+
+    /**
+     * @return The priority class of this request. Requests are {@link RequestPriority#INTERACTIVE} by default.
+     */
+    public RequestPriority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Creates a copy of this request with another priority class.
+     *
+     * @param priority The priority class.
+     * @return A new request with the given priority.
+     */
+    public ApiRequest withPriority(RequestPriority priority) {
+        return new ApiRequest(method, path, body, attributes, timeoutNanos, priority);
+    }
+
+    @Override
+    public String toString() {
+        return "ApiRequest{" + "method='" + method + '\'' +
+                ", path='" + path + '\'' +
+                ", attributes=" + attributes +
+                ", timeoutNanos=" + timeoutNanos +
+                ", priority=" + priority +
+                '}';
+    }
+}
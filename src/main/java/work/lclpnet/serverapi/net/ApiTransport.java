@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import work.lclpnet.lclpnetwork.api.APIResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends {@link ApiRequest}s to LCLPNetwork.
+ * The default implementation is {@link AccessTransport}, alternative implementations (e.g. a multiplexing HTTP/2 client)
+ * can be passed to {@link work.lclpnet.serverapi.MCServerAPI}.
+ */
+@FunctionalInterface
+public interface ApiTransport {
+
+    /**
+     * Sends a request.
+     *
+     * @param request The request to send.
+     * @return A completable future that will contain the response.
+     */
+    CompletableFuture<APIResponse> send(ApiRequest request);
+}
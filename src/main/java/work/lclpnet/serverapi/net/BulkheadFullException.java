@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+/**
+ * Thrown when a request is rejected, because its endpoint already has the maximum amount of requests in flight.
+ */
+public class BulkheadFullException extends RequestRejectedException {
+
+    private static final long serialVersionUID = 6937418240617302671L;
+
+    public BulkheadFullException(String endpoint, int maxInFlight) {
+        super(endpoint, String.format("Endpoint '%s' already has %s requests in flight", endpoint, maxInFlight));
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.serverapi.util.Futures;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * An interceptor which limits the number of requests in flight per endpoint.
+ * Requests exceeding the limit fail fast with a {@link BulkheadFullException}, so that a slow endpoint cannot starve the others.
+ * A request keeps its permit until the transport has {@link TransportFuture#settled(CompletableFuture) settled} it,
+ * even if its future was cancelled before.
+ */
+public class BulkheadInterceptor implements ApiInterceptor {
+
+    private final int defaultMaxInFlight;
+    private final Map<String, Integer> limits = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+
+    /**
+     * @param defaultMaxInFlight The maximum number of requests in flight for endpoints without a specific limit.
+     */
+    public BulkheadInterceptor(int defaultMaxInFlight) {
+        this.defaultMaxInFlight = checkLimit(defaultMaxInFlight);
+    }
+
+    /**
+     * Sets the limit of a specific endpoint.
+     * This has to be done before the first request to that endpoint.
+     *
+     * @param endpoint    The endpoint path.
+     * @param maxInFlight The maximum number of requests in flight for the endpoint.
+     * @return The same instance.
+     */
+    public BulkheadInterceptor setLimit(String endpoint, int maxInFlight) {
+        limits.put(Objects.requireNonNull(endpoint), checkLimit(maxInFlight));
+        return this;
+    }
+
+    public int getLimit(String endpoint) {
+        return limits.getOrDefault(endpoint, defaultMaxInFlight);
+    }
+
+    /**
+     * @param endpoint The endpoint path.
+     * @return The number of requests to the endpoint, that are currently in flight.
+     */
+    public int getInFlight(String endpoint) {
+        Semaphore semaphore = semaphores.get(endpoint);
+        if (semaphore == null) return 0;
+
+        return getLimit(endpoint) - semaphore.availablePermits();
+    }
+
+    @Override
+    public CompletableFuture<APIResponse> intercept(ApiRequest request, Chain chain) {
+        final String endpoint = request.getPath();
+        Semaphore semaphore = semaphores.computeIfAbsent(endpoint, path -> new Semaphore(getLimit(path)));
+
+        if (!semaphore.tryAcquire()) {
+            return Futures.failed(new BulkheadFullException(endpoint, getLimit(endpoint)));
+        }
+
+        CompletableFuture<APIResponse> future = chain.proceed(request);
+        TransportFuture.settled(future).whenComplete((result, error) -> semaphore.release());
+
+        return future;
+    }
+
+    private static int checkLimit(int maxInFlight) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("The limit must be greater than 0");
+        return maxInFlight;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * A circuit breaker for a single endpoint.
+ * It opens, if the failure rate or slow call rate of the recent calls reaches the configured threshold.
+ * While open, calls are rejected immediately. After the open duration, a few trial calls decide whether to close it again.
+ */
+public class CircuitBreaker {
+
+    private static final byte FAILURE = 1, SLOW = 2;
+
+    private final CircuitBreakerConfig config;
+    private final LongSupplier nanoClock;
+    private final byte[] window;
+    private int head = 0, count = 0, failures = 0, slowCalls = 0;
+    private State state = State.CLOSED;
+    private long openedAt = 0L;
+    private int halfOpenPermits = 0, halfOpenSuccesses = 0;
+
+    public CircuitBreaker(CircuitBreakerConfig config, LongSupplier nanoClock) {
+        this.config = Objects.requireNonNull(config);
+        this.nanoClock = Objects.requireNonNull(nanoClock);
+        this.window = new byte[config.getWindowSize()];
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && openExpired()) return State.HALF_OPEN;
+        return state;
+    }
+
+    /**
+     * Tries to acquire permission for a call.
+     * If permission is granted, either {@link #record(boolean, long)} or {@link #release()} must be called afterwards.
+     *
+     * @return Whether the call is permitted.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (!openExpired()) return false;
+
+            state = State.HALF_OPEN;
+            halfOpenPermits = config.getHalfOpenCalls();
+            halfOpenSuccesses = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits <= 0) return false;
+            halfOpenPermits--;
+        }
+
+        return true;
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param failure       Whether the call failed.
+     * @param durationNanos The duration of the call.
+     */
+    public synchronized void record(boolean failure, long durationNanos) {
+        boolean slow = durationNanos >= config.getSlowCallDurationNanos();
+
+        if (state == State.HALF_OPEN) {
+            if (failure || slow) open();
+            else if (++halfOpenSuccesses >= config.getHalfOpenCalls()) close();
+            return;
+        }
+
+        // late results of calls that were started before the circuit opened
+        if (state == State.OPEN) return;
+
+        byte outcome = (byte) ((failure ? FAILURE : 0) | (slow ? SLOW : 0));
+
+        if (count == window.length) {
+            byte evicted = window[head];
+            if ((evicted & FAILURE) != 0) failures--;
+            if ((evicted & SLOW) != 0) slowCalls--;
+        } else {
+            count++;
+        }
+
+        window[head] = outcome;
+        head = (head + 1) % window.length;
+
+        if (failure) failures++;
+        if (slow) slowCalls++;
+
+        if (count < config.getMinimumCalls()) return;
+
+        if (failures >= config.getFailureRateThreshold() * count || slowCalls >= config.getSlowCallRateThreshold() * count) {
+            open();
+        }
+    }
+
+    /**
+     * Releases the permission of a call without recording an outcome, e.g. because the call was cancelled.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) halfOpenPermits++;
+    }
+
+    private boolean openExpired() {
+        return nanoClock.getAsLong() - openedAt >= config.getOpenDurationNanos();
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        head = count = failures = slowCalls = 0;
+    }
+
+    public enum State {
+
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of a {@link CircuitBreakerInterceptor}.
+ */
+public class CircuitBreakerConfig {
+
+    private int windowSize = 20;
+    private int minimumCalls = 10;
+    private float failureRateThreshold = 0.5F;
+    private float slowCallRateThreshold = 0.8F;
+    private long slowCallDurationNanos = TimeUnit.SECONDS.toNanos(5);
+    private long openDurationNanos = TimeUnit.SECONDS.toNanos(30);
+    private int halfOpenCalls = 3;
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @param windowSize The number of most recent calls which are used to compute the failure and slow call rates.
+     * @return The same instance.
+     */
+    public CircuitBreakerConfig setWindowSize(int windowSize) {
+        if (windowSize <= 0) throw new IllegalArgumentException("The window size must be greater than 0");
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * @param minimumCalls The number of calls that have to be recorded, before the circuit breaker can open.
+     * @return The same instance.
+     */
+    public CircuitBreakerConfig setMinimumCalls(int minimumCalls) {
+        if (minimumCalls <= 0) throw new IllegalArgumentException("The minimum calls must be greater than 0");
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    public float getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * @param failureRateThreshold The rate of failed calls [0;1] at which the circuit breaker opens.
+     * @return The same instance.
+     */
+    public CircuitBreakerConfig setFailureRateThreshold(float failureRateThreshold) {
+        this.failureRateThreshold = checkRate(failureRateThreshold);
+        return this;
+    }
+
+    public float getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * @param slowCallRateThreshold The rate of slow calls [0;1] at which the circuit breaker opens.
+     * @return The same instance.
+     */
+    public CircuitBreakerConfig setSlowCallRateThreshold(float slowCallRateThreshold) {
+        this.slowCallRateThreshold = checkRate(slowCallRateThreshold);
+        return this;
+    }
+
+    public long getSlowCallDurationNanos() {
+        return slowCallDurationNanos;
+    }
+
+    /**
+     * @param duration The duration after which a call is considered slow.
+     * @param unit     The unit of the duration.
+     * @return The same instance.
+     */
+    public CircuitBreakerConfig setSlowCallDuration(long duration, TimeUnit unit) {
+        this.slowCallDurationNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    public long getOpenDurationNanos() {
+        return openDurationNanos;
+    }
+
+    /**
+     * @param duration The duration an open circuit breaker waits, before it lets trial calls through.
+     * @param unit     The unit of the duration.
+     * @return The same instance.
+     */
+    public CircuitBreakerConfig setOpenDuration(long duration, TimeUnit unit) {
+        this.openDurationNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    /**
+     * @param halfOpenCalls The number of trial calls, that have to succeed in order to close the circuit breaker again.
+     * @return The same instance.
+     */
+    public CircuitBreakerConfig setHalfOpenCalls(int halfOpenCalls) {
+        if (halfOpenCalls <= 0) throw new IllegalArgumentException("The half open calls must be greater than 0");
+        this.halfOpenCalls = halfOpenCalls;
+        return this;
+    }
+
+    private static float checkRate(float rate) {
+        if (rate <= 0F || rate > 1F) throw new IllegalArgumentException("Rates must be in range (0;1]");
+        return rate;
+    }
+}
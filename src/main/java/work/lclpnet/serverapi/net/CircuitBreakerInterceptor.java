@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.serverapi.util.Futures;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * An interceptor which maintains a {@link CircuitBreaker} per endpoint.
+ * Requests to an endpoint with an open circuit breaker fail fast with a {@link CircuitOpenException}.
+ * Exceptional completions and responses with a status code of 500 or above are considered failures.
+ * Requests that were cancelled, because their deadline passed, are failures as well.
+ */
+public class CircuitBreakerInterceptor implements ApiInterceptor {
+
+    private final CircuitBreakerConfig defaultConfig;
+    private final LongSupplier nanoClock;
+    private final Map<String, CircuitBreakerConfig> endpointConfigs = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerInterceptor() {
+        this(new CircuitBreakerConfig());
+    }
+
+    public CircuitBreakerInterceptor(CircuitBreakerConfig defaultConfig) {
+        this(defaultConfig, System::nanoTime);
+    }
+
+    public CircuitBreakerInterceptor(CircuitBreakerConfig defaultConfig, LongSupplier nanoClock) {
+        this.defaultConfig = Objects.requireNonNull(defaultConfig);
+        this.nanoClock = Objects.requireNonNull(nanoClock);
+    }
+
+    /**
+     * Configures the circuit breaker of a specific endpoint.
+     * This has to be done before the first request to that endpoint.
+     *
+     * @param endpoint The endpoint path.
+     * @param config   The configuration to use for the endpoint.
+     * @return The same instance.
+     */
+    public CircuitBreakerInterceptor configure(String endpoint, CircuitBreakerConfig config) {
+        endpointConfigs.put(Objects.requireNonNull(endpoint), Objects.requireNonNull(config));
+        return this;
+    }
+
+    /**
+     * @param endpoint The endpoint path.
+     * @return The circuit breaker of the given endpoint.
+     */
+    public CircuitBreaker getCircuitBreaker(String endpoint) {
+        return breakers.computeIfAbsent(endpoint, path -> new CircuitBreaker(endpointConfigs.getOrDefault(path, defaultConfig), nanoClock));
+    }
+
+    @Override
+    public CompletableFuture<APIResponse> intercept(ApiRequest request, Chain chain) {
+        CircuitBreaker breaker = getCircuitBreaker(request.getPath());
+
+        if (!breaker.tryAcquire()) {
+            return Futures.failed(new CircuitOpenException(request.getPath()));
+        }
+
+        final long start = nanoClock.getAsLong();
+        CompletableFuture<APIResponse> future = chain.proceed(request);
+
+        future.whenComplete((response, error) -> {
+            Throwable cause = error != null ? Futures.unwrap(error) : null;
+            final long duration = nanoClock.getAsLong() - start;
+
+            if (cause instanceof DeadlineExceededException) {
+                breaker.record(true, duration);
+                return;
+            }
+
+            // cancelled or locally rejected calls say nothing about the endpoint's health
+            if (cause instanceof CancellationException || cause instanceof RequestRejectedException) {
+                breaker.release();
+                return;
+            }
+
+            breaker.record(isFailure(response, cause), duration);
+        });
+
+        return future;
+    }
+
+    protected boolean isFailure(@Nullable APIResponse response, @Nullable Throwable error) {
+        return error != null || (response != null && response.getResponseCode() >= 500);
+    }
+}
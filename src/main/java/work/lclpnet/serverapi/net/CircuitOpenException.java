@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+/**
+ * Thrown when a request is rejected, because the circuit breaker of its endpoint is open.
+ */
+public class CircuitOpenException extends RequestRejectedException {
+
+    private static final long serialVersionUID = -3190580327411574658L;
+
+    public CircuitOpenException(String endpoint) {
+        super(endpoint, String.format("Circuit breaker for endpoint '%s' is open", endpoint));
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cancels a transport request, because the deadline of the dependent future has passed.
+ * Unlike a plain cancellation by the caller, this says something about the health of the endpoint.
+ *
+ * @see Deadlines#propagateCancellation(java.util.concurrent.CompletableFuture, java.util.concurrent.CompletableFuture)
+ */
+public class DeadlineExceededException extends CancellationException {
+
+    private static final long serialVersionUID = -3517430688741250342L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
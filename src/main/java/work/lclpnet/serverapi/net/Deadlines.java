@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import work.lclpnet.serverapi.util.Futures;
+
+import java.util.concurrent.*;
+
+/**
+ * Utility to enforce deadlines on {@link CompletableFuture}s.
+ * This is needed, because Java 8 does not provide {@code CompletableFuture#orTimeout}.
+ */
+public class Deadlines {
+
+    private Deadlines() {
+    }
+
+    /**
+     * Completes a future exceptionally with a {@link TimeoutException}, if it is not completed within the given time.
+     *
+     * @param future  The future to apply the deadline to.
+     * @param timeout The timeout. If it is 0 or less, the future is returned unchanged.
+     * @param unit    The unit of the timeout.
+     * @param <T>     The type of the future.
+     * @return The same future.
+     */
+    public static <T> CompletableFuture<T> apply(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+        if (timeout <= 0L || future.isDone()) return future;
+
+        ScheduledFuture<?> task = Holder.scheduler.schedule(
+                () -> future.completeExceptionally(new TimeoutException(String.format("Deadline of %s ms exceeded", unit.toMillis(timeout)))),
+                timeout, unit);
+
+        // remove the task from the scheduler as soon as possible, so that it does not linger
+        future.whenComplete((result, error) -> task.cancel(false));
+
+        return future;
+    }
+
+    /**
+     * Cancels a source future, once the dependent future completes before it.
+     * This way, cancellations and timeouts of the dependent future are propagated to the source, e.g. a transport request.
+     * If the dependent future timed out, the source is cancelled with a {@link DeadlineExceededException}.
+     *
+     * @param dependent The dependent future.
+     * @param source    The source future.
+     * @param <T>       The type of the dependent future.
+     * @return The dependent future.
+     */
+    public static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> dependent, CompletableFuture<?> source) {
+        dependent.whenComplete((result, error) -> {
+            if (source.isDone()) return;
+
+            if (error != null && Futures.unwrap(error) instanceof TimeoutException) {
+                source.completeExceptionally(new DeadlineExceededException(Futures.unwrap(error).getMessage()));
+            } else {
+                source.cancel(true);
+            }
+        });
+
+        return dependent;
+    }
+
+    // lazy loaded scheduler
+    private static class Holder {
+        private static final ScheduledExecutorService scheduler;
+
+        static {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "MCServerAPI Deadlines");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            executor.setRemoveOnCancelPolicy(true);
+            scheduler = executor;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import work.lclpnet.lclpnetwork.api.APIException;
+import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.serverapi.util.Futures;
+
+import java.net.ConnectException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A bounded queue for mutating requests that could not be sent, because the backend was {@link #isUnavailable(Throwable) unavailable}.
+ * Queued requests are replayed in order, once the backend is reachable again.
+ * While there are queued requests, new mutations are appended to the queue, so that they can't overtake older ones.<br>
+ * <br>
+ * A queue is used by {@link work.lclpnet.serverapi.MCServerAPI#setOfflineQueue(OfflineQueue)}.
+ * It is drained, when a request of that instance succeeds or when {@link #drain()} is called,
+ * e.g. periodically with {@link #start(ScheduledExecutorService, long, TimeUnit)}.
+ */
+public class OfflineQueue implements AutoCloseable {
+
+    private final RequestPipeline pipeline;
+    private final int capacity;
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private boolean draining = false;
+    private volatile long offlineSince = 0L;
+    private final AtomicLong dropped = new AtomicLong(0L);
+    private volatile ScheduledFuture<?> drainTask = null;
+
+    /**
+     * @param pipeline The pipeline to replay the requests with.
+     * @param capacity The maximum number of queued requests. Mutations that exceed it fail as usual.
+     */
+    public OfflineQueue(RequestPipeline pipeline, int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("The capacity must be greater than 0");
+
+        this.pipeline = Objects.requireNonNull(pipeline);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Determines, whether a request failed, because the backend could not be reached.
+     *
+     * @param throwable The failure of the request.
+     * @return True, if the failure is a connection failure.
+     */
+    public static boolean isConnectionFailure(Throwable throwable) {
+        Throwable cause = Futures.unwrap(throwable);
+        if (cause == APIException.NO_CONNECTION || cause instanceof ConnectException) return true;
+
+        return cause instanceof APIException && cause.getCause() instanceof ConnectException;
+    }
+
+    /**
+     * Determines, whether a request was not processed by the backend, because it could not be reached,
+     * or because the request was {@link RequestRejectedException rejected} locally, e.g. by an open circuit breaker.
+     * Such requests can be queued, since the backend has not seen them.
+     *
+     * @param throwable The failure of the request.
+     * @return True, if the request did not reach the backend.
+     */
+    public static boolean isUnavailable(Throwable throwable) {
+        return isConnectionFailure(throwable) || Futures.unwrap(throwable) instanceof RequestRejectedException;
+    }
+
+    /**
+     * Determines, whether a request failed, because the backend is unavailable at the moment.
+     * In addition to {@link #isUnavailable(Throwable)}, this includes requests that exceeded their deadline,
+     * which might or might not have been processed by the backend.
+     *
+     * @param throwable The failure of the request.
+     * @return True, if the failure is expected to go away once the backend recovers.
+     */
+    public static boolean isTransientFailure(Throwable throwable) {
+        Throwable cause = Futures.unwrap(throwable);
+
+        return cause instanceof TimeoutException || cause instanceof DeadlineExceededException || isUnavailable(cause);
+    }
+
+    /**
+     * Queues a request to be replayed later.
+     *
+     * @param request The request.
+     * @param handler A handler for the response of the replayed request, e.g. to update caches.
+     * @return True, if the request was queued. False, if the queue is full.
+     */
+    public synchronized boolean offer(ApiRequest request, Consumer<APIResponse> handler) {
+        Objects.requireNonNull(request);
+        Objects.requireNonNull(handler);
+
+        if (queue.size() >= capacity) return false;
+
+        if (queue.isEmpty() && !draining) offlineSince = System.currentTimeMillis();
+
+        queue.add(new Entry(request, handler));
+        return true;
+    }
+
+    /**
+     * @return True, if there are requests waiting to be replayed, so new mutations must be queued as well.
+     */
+    public synchronized boolean isOffline() {
+        return !queue.isEmpty() || draining;
+    }
+
+    /**
+     * @return The time in milliseconds since the epoch, since when the queue is offline, or 0, if it is not offline.
+     */
+    public long getOfflineSince() {
+        return isOffline() ? offlineSince : 0L;
+    }
+
+    /**
+     * @return The number of queued requests.
+     */
+    public synchronized int getSize() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of replayed requests, that were discarded, because they failed for a reason that is not {@link #isTransientFailure(Throwable) transient}.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Replays the queued requests in order. Stops at the first request that fails {@link #isTransientFailure(Throwable) transiently},
+     * e.g. because the backend is still unreachable, the circuit breaker is open or the deadline was exceeded; that request is kept.
+     * Requests that fail for another reason are discarded, since they might have been processed already.
+     * If the queue is already draining, this method does nothing.
+     *
+     * @return A completable future that will contain the number of replayed requests.
+     */
+    public CompletableFuture<Integer> drain() {
+        synchronized (this) {
+            if (draining || queue.isEmpty()) return CompletableFuture.completedFuture(0);
+            draining = true;
+        }
+
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        drainNext(result, 0);
+
+        return result;
+    }
+
+    private void drainNext(CompletableFuture<Integer> result, int replayed) {
+        // responses that are already completed are handled in a loop, to not grow the stack with the queue size
+        while (true) {
+            final Entry entry;
+
+            synchronized (this) {
+                entry = queue.peek();
+
+                if (entry == null) {
+                    draining = false;
+                    result.complete(replayed);
+                    return;
+                }
+            }
+
+            CompletableFuture<APIResponse> response = pipeline.execute(entry.request);
+
+            if (entry.request.hasTimeout()) {
+                response = Deadlines.apply(response, entry.request.getTimeoutNanos(), TimeUnit.NANOSECONDS);
+            }
+
+            if (!response.isDone()) {
+                final int count = replayed;
+
+                response.whenComplete((resp, error) -> {
+                    if (handleReplayed(entry, resp, error, result, count)) {
+                        drainNext(result, count + 1);
+                    }
+                });
+                return;
+            }
+
+            final int count = replayed;
+            boolean proceed = response.handle((resp, error) -> handleReplayed(entry, resp, error, result, count)).join();
+            if (!proceed) return;
+
+            replayed++;
+        }
+    }
+
+    private boolean handleReplayed(Entry entry, APIResponse resp, Throwable error, CompletableFuture<Integer> result, int replayed) {
+        if (error != null && isTransientFailure(error)) {
+            synchronized (this) {
+                draining = false;
+            }
+
+            result.complete(replayed);
+            return false;
+        }
+
+        synchronized (this) {
+            queue.remove(entry);
+        }
+
+        if (error != null) {
+            dropped.incrementAndGet();
+            return true;
+        }
+
+        try {
+            entry.handler.accept(resp);
+        } catch (Throwable t) {
+            dropped.incrementAndGet();
+        }
+
+        return true;
+    }
+
+    /**
+     * Starts draining the queue periodically, to detect when the backend is reachable again.
+     *
+     * @param scheduler The scheduler to use.
+     * @param period    The period between drain attempts.
+     * @param unit      The unit of the period.
+     */
+    public synchronized void start(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+        if (drainTask != null) throw new IllegalStateException("Already started");
+        drainTask = scheduler.scheduleAtFixedRate(this::drain, period, period, unit);
+    }
+
+    /**
+     * Stops draining the queue periodically.
+     */
+    public synchronized void stop() {
+        if (drainTask == null) return;
+
+        drainTask.cancel(false);
+        drainTask = null;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private static class Entry {
+
+        private final ApiRequest request;
+        private final Consumer<APIResponse> handler;
+
+        Entry(ApiRequest request, Consumer<APIResponse> handler) {
+            this.request = request;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import work.lclpnet.lclpnetwork.api.APIResponse;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A transport decorator that limits the number of concurrent requests and queues the excess by {@link RequestPriority}.
+ * Queued interactive requests are always dispatched before queued background requests.
+ * Additionally, background requests can be limited to a part of the slots, so that interactive requests never wait behind a big flush.
+ * A slot is occupied until the delegate has {@link TransportFuture#settled(CompletableFuture) settled} the request.
+ */
+public class PriorityTransport implements ApiTransport {
+
+    private final ApiTransport delegate;
+    private final int maxConcurrent;
+    private final int maxBackground;
+    private final Map<RequestPriority, Deque<Pending>> queues = new EnumMap<>(RequestPriority.class);
+    private int running = 0, runningBackground = 0;
+
+    /**
+     * @param delegate      The transport to send the requests with.
+     * @param maxConcurrent The maximum number of concurrent requests.
+     * @param maxBackground The maximum number of concurrent background requests. Must not be greater than maxConcurrent.
+     */
+    public PriorityTransport(ApiTransport delegate, int maxConcurrent, int maxBackground) {
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("The max concurrent requests must be greater than 0");
+        if (maxBackground <= 0 || maxBackground > maxConcurrent)
+            throw new IllegalArgumentException("The max background requests must be in range [1;maxConcurrent]");
+
+        this.delegate = Objects.requireNonNull(delegate);
+        this.maxConcurrent = maxConcurrent;
+        this.maxBackground = maxBackground;
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    @Override
+    public CompletableFuture<APIResponse> send(ApiRequest request) {
+        Pending pending = new Pending(request);
+
+        synchronized (this) {
+            if (!canDispatch(request.getPriority())) {
+                queues.get(request.getPriority()).add(pending);
+
+                // remove cancelled requests from the queue
+                pending.future.whenComplete((response, error) -> {
+                    if (!pending.future.isCancelled()) return;
+
+                    boolean removed;
+
+                    synchronized (this) {
+                        removed = queues.get(request.getPriority()).remove(pending);
+                    }
+
+                    // the request was never sent
+                    if (removed) pending.future.settle();
+                });
+
+                return pending.future;
+            }
+
+            acquire(request.getPriority());
+        }
+
+        dispatch(pending);
+
+        return pending.future;
+    }
+
+    /**
+     * @param priority The priority class.
+     * @return The number of queued requests of the priority class.
+     */
+    public synchronized int getQueued(RequestPriority priority) {
+        return queues.get(priority).size();
+    }
+
+    /**
+     * @return The number of requests currently in flight.
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    private void dispatch(Pending pending) {
+        CompletableFuture<APIResponse> response;
+
+        try {
+            response = delegate.send(pending.request);
+        } catch (Throwable t) {
+            response = new CompletableFuture<>();
+            response.completeExceptionally(t);
+        }
+
+        final CompletableFuture<APIResponse> sent = response;
+
+        sent.whenComplete((resp, error) -> {
+            if (error != null) pending.future.completeExceptionally(error);
+            else pending.future.complete(resp);
+        });
+
+        // the slot is occupied until the request has finished, even if it was cancelled
+        TransportFuture.settled(sent).whenComplete((result, error) -> {
+            release(pending.request.getPriority());
+            pending.future.settle();
+        });
+
+        // propagate cancellation to the delegate
+        pending.future.whenComplete((resp, error) -> {
+            if (!sent.isDone()) sent.cancel(true);
+        });
+    }
+
+    private void release(RequestPriority priority) {
+        Pending next;
+
+        synchronized (this) {
+            running--;
+            if (priority == RequestPriority.BACKGROUND) runningBackground--;
+
+            next = poll();
+            if (next != null) acquire(next.request.getPriority());
+        }
+
+        if (next != null) dispatch(next);
+    }
+
+    @Nullable
+    private Pending poll() {
+        for (RequestPriority priority : RequestPriority.values()) {
+            Deque<Pending> queue = queues.get(priority);
+
+            if (!queue.isEmpty() && canDispatch(priority)) {
+                return queue.poll();
+            }
+        }
+
+        return null;
+    }
+
+    private boolean canDispatch(RequestPriority priority) {
+        if (running >= maxConcurrent) return false;
+        return priority != RequestPriority.BACKGROUND || runningBackground < maxBackground;
+    }
+
+    private void acquire(RequestPriority priority) {
+        running++;
+        if (priority == RequestPriority.BACKGROUND) runningBackground++;
+    }
+
+    private static class Pending {
+
+        private final ApiRequest request;
+        private final TransportFuture<APIResponse> future = new TransportFuture<>();
+
+        Pending(ApiRequest request) {
+            this.request = request;
+        }
+    }
+}
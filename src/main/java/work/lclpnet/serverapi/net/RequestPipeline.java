@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.serverapi.util.Futures;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Passes {@link ApiRequest}s through a chain of {@link ApiInterceptor}s to an {@link ApiTransport}.
+ * Interceptors are invoked in the order they were added.
+ */
+public class RequestPipeline {
+
+    private final List<ApiInterceptor> interceptors = new CopyOnWriteArrayList<>();
+    private volatile ApiTransport transport;
+
+    public RequestPipeline(ApiTransport transport) {
+        this.transport = Objects.requireNonNull(transport);
+    }
+
+    public ApiTransport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(ApiTransport transport) {
+        this.transport = Objects.requireNonNull(transport);
+    }
+
+    public void addInterceptor(ApiInterceptor interceptor) {
+        interceptors.add(Objects.requireNonNull(interceptor));
+    }
+
+    public boolean removeInterceptor(ApiInterceptor interceptor) {
+        return interceptors.remove(interceptor);
+    }
+
+    public List<ApiInterceptor> getInterceptors() {
+        return Collections.unmodifiableList(interceptors);
+    }
+
+    /**
+     * Executes a request.
+     * Exceptions thrown by interceptors or the transport are reported through the returned future.
+     *
+     * @param request The request to execute.
+     * @return A completable future that will contain the response.
+     */
+    public CompletableFuture<APIResponse> execute(ApiRequest request) {
+        Objects.requireNonNull(request);
+
+        // the chain operates on a snapshot, so that interceptors can be modified during requests
+        ApiInterceptor[] snapshot = interceptors.toArray(new ApiInterceptor[0]);
+
+        return new ChainImpl(snapshot, 0, transport).proceed(request);
+    }
+
+    private static class ChainImpl implements ApiInterceptor.Chain {
+
+        private final ApiInterceptor[] interceptors;
+        private final int index;
+        private final ApiTransport transport;
+
+        ChainImpl(ApiInterceptor[] interceptors, int index, ApiTransport transport) {
+            this.interceptors = interceptors;
+            this.index = index;
+            this.transport = transport;
+        }
+
+        @Override
+        public CompletableFuture<APIResponse> proceed(ApiRequest request) {
+            try {
+                CompletableFuture<APIResponse> future;
+
+                if (index >= interceptors.length) {
+                    future = transport.send(request);
+                } else {
+                    future = interceptors[index].intercept(request, new ChainImpl(interceptors, index + 1, transport));
+                }
+
+                return Objects.requireNonNull(future, "Interceptor or transport returned null");
+            } catch (Throwable t) {
+                return Futures.failed(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+/**
+ * Priority classes of requests.
+ * They are used by the {@link PriorityTransport} to let interactive requests overtake background work.
+ */
+public enum RequestPriority {
+
+    /**
+     * Requests a player is waiting for, e.g. from commands.
+     */
+    INTERACTIVE,
+    /**
+     * Bulk requests nobody is waiting for, e.g. stat flushes.
+     */
+    BACKGROUND
+
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+/**
+ * Thrown when a request is rejected locally, without being sent to LCLPNetwork.
+ */
+public class RequestRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 4127783645310948822L;
+
+    private final String endpoint;
+
+    public RequestRejectedException(String endpoint, String message) {
+        super(message);
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @return The endpoint (path) of the rejected request.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
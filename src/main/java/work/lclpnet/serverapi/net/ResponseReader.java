@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.lclpnetwork.api.ResponseEvaluationException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads typed objects from API responses with a {@link JsonReader}, without building an intermediate JSON tree.
+ * Malformed responses are reported as {@link ResponseEvaluationException}.
+ */
+public class ResponseReader {
+
+    private static final Gson gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
+
+    private ResponseReader() {
+    }
+
+    /**
+     * @param type The type to get the adapter for.
+     * @param <T>  The type.
+     * @return A type adapter that respects {@link com.google.gson.annotations.Expose} annotations, like the LCLPNetwork facades.
+     */
+    public static <T> TypeAdapter<T> adapter(Class<T> type) {
+        return gson.getAdapter(type);
+    }
+
+    /**
+     * Reads a response whose body is a JSON array.
+     *
+     * @param response The response.
+     * @param adapter  The adapter to read the elements with.
+     * @param <T>      The element type.
+     * @return A list of the read elements.
+     */
+    public static <T> List<T> readList(APIResponse response, TypeAdapter<T> adapter) {
+        try (JsonReader reader = open(response)) {
+            return readArray(reader, adapter);
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            throw new ResponseEvaluationException(response);
+        }
+    }
+
+    /**
+     * Reads an array property of a response whose body is a JSON object.
+     * Other properties are skipped.
+     *
+     * @param response The response.
+     * @param property The name of the array property.
+     * @param adapter  The adapter to read the elements with.
+     * @param <T>      The element type.
+     * @return A list of the read elements.
+     */
+    public static <T> List<T> readListProperty(APIResponse response, String property, TypeAdapter<T> adapter) {
+        try (JsonReader reader = open(response)) {
+            List<T> list = null;
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if (property.equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    list = readArray(reader, adapter);
+                } else {
+                    reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+
+            if (list == null) throw new ResponseEvaluationException(response);
+
+            return list;
+        } catch (IOException | IllegalStateException | JsonParseException e) {
+            throw new ResponseEvaluationException(response);
+        }
+    }
+
+    private static JsonReader open(APIResponse response) {
+        String raw = response.getRawResponse();
+        if (raw == null) throw new ResponseEvaluationException(response);
+
+        return new JsonReader(new StringReader(raw));
+    }
+
+    private static <T> List<T> readArray(JsonReader reader, TypeAdapter<T> adapter) throws IOException {
+        List<T> list = new ArrayList<>();
+
+        reader.beginArray();
+
+        while (reader.hasNext()) {
+            T element = adapter.read(reader);
+            if (element != null) list.add(element);
+        }
+
+        reader.endArray();
+
+        return list;
+    }
+}
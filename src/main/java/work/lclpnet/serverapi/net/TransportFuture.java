@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The future of a transport request, which might keep running after the future was cancelled, e.g. an {@link AccessTransport} request.
+ * {@link #settled(CompletableFuture)} tells interceptors and transport decorators, when the request has actually finished,
+ * so that they can hold resources, like bulkhead permits, until then.
+ *
+ * @param <T> The type of the future.
+ */
+public class TransportFuture<T> extends CompletableFuture<T> {
+
+    private final CompletableFuture<Void> settled = new CompletableFuture<>();
+
+    /**
+     * Creates a future that mirrors a request future. Cancelling the returned future does not cancel the request.
+     *
+     * @param request The future of the underlying request.
+     * @param <T>     The type of the future.
+     * @return A new future, which is settled once the request future completes.
+     */
+    public static <T> TransportFuture<T> of(CompletableFuture<T> request) {
+        TransportFuture<T> future = new TransportFuture<>();
+
+        request.whenComplete((value, error) -> {
+            if (error != null) future.completeExceptionally(error);
+            else future.complete(value);
+
+            future.settle();
+        });
+
+        return future;
+    }
+
+    /**
+     * Gets a future that completes, once the request of a transport future has actually finished.
+     * For other futures, this is the future itself, as their request is assumed to be aborted on cancellation.
+     *
+     * @param future The future returned by a transport.
+     * @return A future that completes, when the request has finished.
+     */
+    public static CompletableFuture<?> settled(CompletableFuture<?> future) {
+        if (future instanceof TransportFuture) return ((TransportFuture<?>) future).settled;
+        return future;
+    }
+
+    void settle() {
+        settled.complete(null);
+    }
+}
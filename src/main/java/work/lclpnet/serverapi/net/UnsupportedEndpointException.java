@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+/**
+ * Thrown when the backend does not know an endpoint yet, e.g. a batch endpoint on an older LCLPNetwork version.
+ */
+public class UnsupportedEndpointException extends RuntimeException {
+
+    private static final long serialVersionUID = -1754370269184905733L;
+
+    private final String endpoint;
+
+    public UnsupportedEndpointException(String endpoint) {
+        super(String.format("Endpoint '%s' is not supported by the backend", endpoint));
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @return The endpoint (path) that is not supported.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import javax.annotation.Nullable;
+
+/**
+ * A value that was either fetched from the backend or, if the backend was unreachable, served from a cache.
+ *
+ * @param <T> The type of the value.
+ */
+public class CachedValue<T> {
+
+    @Nullable
+    private final T value;
+    private final boolean stale;
+
+    protected CachedValue(@Nullable T value, boolean stale) {
+        this.value = value;
+        this.stale = stale;
+    }
+
+    public static <T> CachedValue<T> fresh(@Nullable T value) {
+        return new CachedValue<>(value, false);
+    }
+
+    public static <T> CachedValue<T> stale(@Nullable T value) {
+        return new CachedValue<>(value, true);
+    }
+
+    @Nullable
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return True, if the value was served from a cache, because the backend was unreachable.
+     * It might be outdated.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedValue{" +
+                "value=" + value +
+                ", stale=" + stale +
+                '}';
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import work.lclpnet.serverapi.MCServerAPI;
+import work.lclpnet.serverapi.api.TransactionResult;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A local ledger of player coin balances, which allows shops to reject unaffordable purchases instantly.
+ * Coins are reserved optimistically before {@link MCServerAPI#makeCoinTransaction(String, String, int, String, boolean)} is called.
+ * The backend stays authoritative: transactions that don't succeed release their reservation and cause the balance to be reloaded.
+ * Until it is reloaded, the balance is unknown, since a transaction whose request failed (e.g. timed out) might have been made anyway.
+ * Players with an unknown balance are never rejected locally.
+ */
+public class CoinLedger {
+
+    private final MCServerAPI api;
+    private final Function<String, CompletableFuture<Integer>> balanceLoader;
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+
+    /**
+     * @param api           The API instance to make the transactions with.
+     * @param balanceLoader A function that fetches the current coin balance of a player from the backend.
+     */
+    public CoinLedger(MCServerAPI api, Function<String, CompletableFuture<Integer>> balanceLoader) {
+        this.api = Objects.requireNonNull(api);
+        this.balanceLoader = Objects.requireNonNull(balanceLoader);
+    }
+
+    /**
+     * Loads the balance of a player into the ledger.
+     * Implementations should call this when a player joins.
+     *
+     * @param playerUuid The player UUID.
+     * @return A completable future that completes once the balance was loaded.
+     */
+    public CompletableFuture<Void> seed(String playerUuid) {
+        Objects.requireNonNull(playerUuid);
+
+        return balanceLoader.apply(playerUuid).thenAccept(balance -> {
+            if (balance != null) setBalance(playerUuid, balance);
+        });
+    }
+
+    /**
+     * Sets the backend balance of a player.
+     *
+     * @param playerUuid The player UUID.
+     * @param balance    The balance.
+     */
+    public void setBalance(String playerUuid, int balance) {
+        Objects.requireNonNull(playerUuid);
+
+        Account account = accounts.computeIfAbsent(playerUuid, uuid -> new Account());
+
+        synchronized (account) {
+            account.balance = balance;
+            account.known = true;
+        }
+    }
+
+    /**
+     * @param playerUuid The player UUID.
+     * @return The balance of the player minus the reserved coins, if the balance is known.
+     */
+    public OptionalInt getAvailable(String playerUuid) {
+        Account account = accounts.get(playerUuid);
+        if (account == null) return OptionalInt.empty();
+
+        synchronized (account) {
+            return account.known ? OptionalInt.of(account.balance - account.reserved) : OptionalInt.empty();
+        }
+    }
+
+    /**
+     * Reserves coins of a player. This method never blocks.
+     *
+     * @param payerUuid The UUID of the player who pays.
+     * @param amount    The amount of coins to reserve.
+     * @return The reservation, or null, if the player is known to not have enough coins.
+     */
+    @Nullable
+    public Reservation reserve(String payerUuid, int amount) {
+        Objects.requireNonNull(payerUuid);
+        if (amount <= 0) throw new IllegalArgumentException("The amount must be greater than 0");
+
+        Account account = accounts.computeIfAbsent(payerUuid, uuid -> new Account());
+
+        synchronized (account) {
+            if (account.known && account.balance - account.reserved < amount) return null;
+
+            account.reserved += amount;
+        }
+
+        return new Reservation(payerUuid, account, amount);
+    }
+
+    /**
+     * Reserves coins and submits the transaction to the backend.
+     *
+     * @param payerUuid          The UUID of the player who pays the coins.
+     * @param recipientUuid      The optional UUID of the player who receives the coins. If null, the coins will be payed to the server.
+     * @param amount             The amount of coins involved in this transaction.
+     * @param itemName           The title of the transaction. Can be a translation key, if the "itemNameTranslated" param is set to true.
+     * @param itemNameTranslated Whether the "itemName" is a translation key.
+     * @return A completable future that will contain the {@link TransactionResult}.
+     * It is completed immediately, if the payer is known to not have enough coins.
+     */
+    public CompletableFuture<TransactionResult> purchase(String payerUuid, @Nullable String recipientUuid, int amount, String itemName, boolean itemNameTranslated) {
+        Reservation reservation = reserve(payerUuid, amount);
+
+        if (reservation == null) {
+            return CompletableFuture.completedFuture(TransactionResult.failureMissingCoins());
+        }
+
+        return reservation.submit(recipientUuid, itemName, itemNameTranslated);
+    }
+
+    /**
+     * Removes a player from the ledger.
+     * Implementations should call this, if a player leaves the server.
+     *
+     * @param playerUuid The player UUID.
+     */
+    public void drop(String playerUuid) {
+        accounts.remove(playerUuid);
+    }
+
+    private void reload(String playerUuid) {
+        Account account = accounts.get(playerUuid);
+
+        if (account != null) {
+            synchronized (account) {
+                account.known = false;
+            }
+        }
+
+        seed(playerUuid);
+    }
+
+    private void credit(@Nullable String playerUuid, int amount) {
+        if (playerUuid == null) return;
+
+        Account account = accounts.get(playerUuid);
+        if (account == null) return;
+
+        synchronized (account) {
+            account.balance += amount;
+        }
+    }
+
+    private static class Account {
+        private int balance = 0, reserved = 0;
+        private boolean known = false;
+    }
+
+    /**
+     * Coins that are reserved for a transaction.
+     * A reservation must either be submitted or cancelled.
+     */
+    public class Reservation {
+
+        private final String payerUuid;
+        private final Account account;
+        private final int amount;
+        private boolean released = false;
+
+        private Reservation(String payerUuid, Account account, int amount) {
+            this.payerUuid = payerUuid;
+            this.account = account;
+            this.amount = amount;
+        }
+
+        public String getPayerUuid() {
+            return payerUuid;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        /**
+         * Submits the transaction to the backend.
+         * On success, the reserved coins are deducted from the balance.
+         * Otherwise, they are released again and the balance is unknown, until it is reloaded.
+         *
+         * @param recipientUuid      The optional UUID of the player who receives the coins. If null, the coins will be payed to the server.
+         * @param itemName           The title of the transaction. Can be a translation key, if the "itemNameTranslated" param is set to true.
+         * @param itemNameTranslated Whether the "itemName" is a translation key.
+         * @return A completable future that will contain the {@link TransactionResult}.
+         */
+        public CompletableFuture<TransactionResult> submit(@Nullable String recipientUuid, String itemName, boolean itemNameTranslated) {
+            return api.makeCoinTransaction(payerUuid, recipientUuid, amount, itemName, itemNameTranslated).whenComplete((result, error) -> {
+                boolean success = error == null && result != null && result.isSuccess();
+
+                synchronized (account) {
+                    if (!release()) return;
+                    if (success) account.balance -= amount;
+                }
+
+                if (success) {
+                    credit(recipientUuid, amount);
+                    return;
+                }
+
+                // either the local balance was wrong, or it is unclear whether the transaction was made, reconcile with the backend
+                reload(payerUuid);
+
+                if (result == null && recipientUuid != null && accounts.containsKey(recipientUuid)) {
+                    reload(recipientUuid);
+                }
+            });
+        }
+
+        /**
+         * Releases the reserved coins without making a transaction.
+         */
+        public void cancel() {
+            synchronized (account) {
+                release();
+            }
+        }
+
+        private boolean release() {
+            if (released) return false;
+
+            released = true;
+            account.reserved -= amount;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+public class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Creates a future that is already completed exceptionally.
+     *
+     * @param throwable The exception.
+     * @param <T>       The type of the future.
+     * @return A new, exceptionally completed future.
+     */
+    public static <T> CompletableFuture<T> failed(Throwable throwable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+    /**
+     * Creates a future that is completed on the given executor, once the source future completes.
+     * Dependent stages of the returned future therefore run on that executor, e.g. the server main thread.
+     * Cancelling the returned future cancels the source future.
+     *
+     * @param future   The source future.
+     * @param executor The executor, or null to return the source future unchanged.
+     * @param <T>      The type of the future.
+     * @return A future that is completed on the executor.
+     */
+    public static <T> CompletableFuture<T> completeOn(CompletableFuture<T> future, @Nullable Executor executor) {
+        if (executor == null) return future;
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        future.whenComplete((value, error) -> executor.execute(() -> {
+            if (error != null) result.completeExceptionally(error);
+            else result.complete(value);
+        }));
+
+        result.whenComplete((value, error) -> {
+            if (!future.isDone()) future.cancel(true);
+        });
+
+        return result;
+    }
+
+    /**
+     * Removes {@link CompletionException} and {@link ExecutionException} wrappers from a throwable.
+     *
+     * @param throwable The throwable.
+     * @return The actual cause.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        return cause;
+    }
+}
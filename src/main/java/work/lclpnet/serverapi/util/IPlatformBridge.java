@@ -9,13 +9,36 @@ package work.lclpnet.serverapi.util;
 import work.lclpnet.lclpnetwork.facade.MCPlayer;
 import work.lclpnet.serverapi.MCServerAPI;
 import work.lclpnet.serverapi.msg.MCMessage;
+import work.lclpnet.serverapi.msg.MessageRenderer;
 
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
 public interface IPlatformBridge {
 
+    /**
+     * The message of the {@link NullPointerException} that {@link #getPlayerByName(String, MCServerAPI)} fails with,
+     * if there is no minecraft account with the given name.
+     */
+    String NO_ACCOUNT_WITH_NAME = "There is no minecraft account with that name.";
+
     void sendMessageTo(String playerUuid, MCMessage msg);
 
+    /**
+     * Sends a message to multiple players.
+     * By default, the message is sent to each player individually. {@link IRenderingPlatformBridge} renders it only once per language.
+     *
+     * @param playerUuids The UUIDs of the players to send the message to.
+     * @param msg         The message.
+     */
+    default void broadcast(Collection<String> playerUuids, MCMessage msg) {
+        Objects.requireNonNull(msg);
+
+        for (String playerUuid : playerUuids) {
+            sendMessageTo(playerUuid, msg);
+        }
+    }
+
     /**
      * Gets the current name of the Minecraft account with the given UUID.
      * The server implementation should check for any online players with the {@link MCPlayer}'s UUID first, in order to save time.
@@ -45,9 +68,76 @@ public interface IPlatformBridge {
      */
     default CompletableFuture<MCPlayer> getPlayerByName(String name, MCServerAPI api) {
         return getPlayerUUIDByName(name).thenCompose(uuid -> {
-            if (uuid == null) throw new NullPointerException("There is no minecraft account with that name.");
+            if (uuid == null) throw new NullPointerException(NO_ACCOUNT_WITH_NAME);
             else return api.getMCPlayerByUUID(uuid);
         });
     }
 
+    /**
+     * A platform bridge that renders messages with a {@link MessageRenderer} and sends the rendered output to the players,
+     * e.g. as text component JSON. Broadcasts are rendered once per language and the rendered output is sent to all players of that language.
+     *
+     * @param <R> The type of the rendered output.
+     */
+    interface IRenderingPlatformBridge<R> extends IPlatformBridge {
+
+        /**
+         * Gets the renderer for messages. To render recurring messages only once, a {@link work.lclpnet.serverapi.msg.RenderCache} can be used.
+         *
+         * @return The renderer.
+         */
+        MessageRenderer<R> getRenderer();
+
+        /**
+         * Gets the language messages to a player are translated to.
+         * Usually, this is the preferred network language, see {@link work.lclpnet.serverapi.msg.ServerTranslations#getLanguage(String, String)},
+         * or the language of the player's client.
+         *
+         * @param playerUuid The player UUID.
+         * @return The language of the player.
+         */
+        String getLanguage(String playerUuid);
+
+        /**
+         * Sends a rendered message to a player.
+         *
+         * @param playerUuid The player UUID.
+         * @param rendered   The rendered message.
+         */
+        void sendRendered(String playerUuid, R rendered);
+
+        /**
+         * Sends a rendered message to multiple players. Platforms may override this to encode the message only once.
+         *
+         * @param playerUuids The UUIDs of the players.
+         * @param rendered    The rendered message.
+         */
+        default void sendRendered(Collection<String> playerUuids, R rendered) {
+            for (String playerUuid : playerUuids) {
+                sendRendered(playerUuid, rendered);
+            }
+        }
+
+        @Override
+        default void sendMessageTo(String playerUuid, MCMessage msg) {
+            sendRendered(playerUuid, getRenderer().render(msg, getLanguage(playerUuid)));
+        }
+
+        @Override
+        default void broadcast(Collection<String> playerUuids, MCMessage msg) {
+            Objects.requireNonNull(msg);
+
+            Map<String, List<String>> byLanguage = new LinkedHashMap<>();
+
+            for (String playerUuid : playerUuids) {
+                byLanguage.computeIfAbsent(getLanguage(playerUuid), language -> new ArrayList<>()).add(playerUuid);
+            }
+
+            MessageRenderer<R> renderer = getRenderer();
+
+            for (Map.Entry<String, List<String>> entry : byLanguage.entrySet()) {
+                sendRendered(entry.getValue(), renderer.render(msg, entry.getKey()));
+            }
+        }
+    }
 }
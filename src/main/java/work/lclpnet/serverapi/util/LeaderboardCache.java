@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import work.lclpnet.lclpnetwork.facade.MCPlayer;
+import work.lclpnet.serverapi.MCServerAPI;
+import work.lclpnet.serverapi.api.IncrementTransaction;
+import work.lclpnet.serverapi.api.MassIncrementTransaction;
+import work.lclpnet.serverapi.api.StatIncrementListener;
+import work.lclpnet.serverapi.jfr.FlightEvents;
+import work.lclpnet.serverapi.net.RequestPriority;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Caches the results of {@link MCServerAPI#getPlayersRankedBy(String, int)}, so that frequent reads (e.g. holograms) are served from memory.
+ * Every tracked (property, amount) pair is refreshed periodically, with {@link RequestPriority#BACKGROUND} priority.
+ * Between refreshes, the increments sent with {@link MCServerAPI#incrementStat(String, Iterable)} are applied to the cached leaderboards,
+ * so that the displayed leaderboards stay roughly current. Increments which are not sent with the api, e.g. by other servers,
+ * can be recorded with {@link #recordIncrement(String, String, int)}.
+ * Increments are kept per leaderboard, only increments of tracked properties are recorded.
+ * Implementations should call {@link #close()}, when the cache is no longer used.
+ */
+public class LeaderboardCache implements AutoCloseable {
+
+    private final MCServerAPI api;
+    private final MCServerAPI backgroundApi;
+    private final StatIncrementListener incrementListener = (statType, transactions) -> recordIncrements(transactions);
+    @Nullable
+    private final ToIntBiFunction<String, MCPlayer> scoreFunction;
+    private final Map<Key, Board> boards = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile ScheduledFuture<?> refreshTask = null;
+
+    public LeaderboardCache(MCServerAPI api) {
+        this(api, null);
+    }
+
+    /**
+     * @param api           The API instance to fetch the leaderboards with. The increments sent with it are recorded.
+     * @param scoreFunction An optional function to get the score of a ranked player for a property.
+     *                      If present, leaderboards are re-sorted by their score plus the pending increments on read.
+     *                      Otherwise, the pending increments are only reported by {@link Entry#getPendingDelta()}.
+     */
+    public LeaderboardCache(MCServerAPI api, @Nullable ToIntBiFunction<String, MCPlayer> scoreFunction) {
+        this.api = Objects.requireNonNull(api);
+        this.backgroundApi = api.withPriority(RequestPriority.BACKGROUND);
+        this.scoreFunction = scoreFunction;
+
+        api.addIncrementListener(incrementListener);
+    }
+
+    /**
+     * Starts tracking a leaderboard and fetches it, if it is not already tracked.
+     *
+     * @param property The property to rank the players by.
+     * @param amount   The size of the leaderboard.
+     * @return A completable future that completes once the leaderboard was fetched.
+     */
+    public CompletableFuture<Void> track(String property, int amount) {
+        Key key = new Key(property, amount);
+        Board board = new Board();
+        if (boards.putIfAbsent(key, board) != null) return CompletableFuture.completedFuture(null);
+
+        return refresh(key, board, api);
+    }
+
+    /**
+     * Stops tracking a leaderboard.
+     *
+     * @param property The property the players are ranked by.
+     * @param amount   The size of the leaderboard.
+     */
+    public void untrack(String property, int amount) {
+        boards.remove(new Key(property, amount));
+    }
+
+    /**
+     * Gets a cached leaderboard. This method never blocks.
+     * If the leaderboard is not tracked yet, tracking starts and an empty list is returned.
+     *
+     * @param property The property to rank the players by.
+     * @param amount   The size of the leaderboard.
+     * @return The cached leaderboard, with the pending increments applied.
+     */
+    public List<Entry> getLeaderboard(String property, int amount) {
+        Board board = boards.get(new Key(property, amount));
+        FlightEvents.cacheLookup("leaderboards", board != null);
+
+        if (board == null) {
+            track(property, amount);
+            return Collections.emptyList();
+        }
+
+        List<MCPlayer> players = board.players;
+        Map<String, Integer> deltas = board.deltas;
+        List<Entry> entries = new ArrayList<>(players.size());
+
+        for (MCPlayer player : players) {
+            int delta = deltas.getOrDefault(player.getUuid(), 0);
+            int score = scoreFunction != null ? scoreFunction.applyAsInt(property, player) + delta : 0;
+
+            entries.add(new Entry(entries.size() + 1, player, delta, score));
+        }
+
+        if (scoreFunction != null && !deltas.isEmpty()) {
+            // stable sort, so that players with equal scores keep the order of the backend
+            entries.sort(Comparator.comparingInt(Entry::getScore).reversed());
+
+            for (int i = 0; i < entries.size(); i++) {
+                entries.set(i, entries.get(i).withRank(i + 1));
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Records an increment which is not yet reflected by the cached leaderboards.
+     * The increment is applied to the tracked leaderboards of the property until their next refresh.
+     * If no leaderboard of the property is tracked, the increment is ignored.
+     *
+     * @param property   The property, e.g. 'points'.
+     * @param playerUuid The player whose property was incremented.
+     * @param amount     The amount of the increment.
+     */
+    public void recordIncrement(String property, String playerUuid, int amount) {
+        Objects.requireNonNull(property);
+        Objects.requireNonNull(playerUuid);
+        if (amount == 0) return;
+
+        boards.forEach((key, board) -> {
+            if (key.property.equals(property)) board.deltas.merge(playerUuid, amount, Integer::sum);
+        });
+    }
+
+    /**
+     * Records all increments of a {@link MassIncrementTransaction}, using the item types as properties.
+     * Transactions sent with the {@link MCServerAPI} of this cache are recorded automatically and must not be recorded again.
+     *
+     * @param massTransaction The transaction.
+     */
+    public void recordIncrements(MassIncrementTransaction massTransaction) {
+        recordIncrements(massTransaction.getTransactions());
+    }
+
+    private void recordIncrements(List<IncrementTransaction> transactions) {
+        for (IncrementTransaction transaction : transactions) {
+            for (IncrementTransaction.Item item : transaction.getItems()) {
+                recordIncrement(item.getType(), transaction.getUuid(), item.getAmount());
+            }
+        }
+    }
+
+    /**
+     * Refreshes all tracked leaderboards.
+     *
+     * @return A completable future that completes when all leaderboards were refreshed.
+     */
+    public CompletableFuture<Void> refreshAll() {
+        return refreshAll(api);
+    }
+
+    private CompletableFuture<Void> refreshAll(MCServerAPI sender) {
+        return CompletableFuture.allOf(boards.entrySet().stream()
+                .map(entry -> refresh(entry.getKey(), entry.getValue(), sender))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Refreshes a single tracked leaderboard.
+     * If the leaderboard is already being refreshed, the running refresh is returned.
+     *
+     * @param property The property the players are ranked by.
+     * @param amount   The size of the leaderboard.
+     * @return A completable future that completes when the leaderboard was refreshed.
+     */
+    public CompletableFuture<Void> refresh(String property, int amount) {
+        Key key = new Key(property, amount);
+        Board board = boards.get(key);
+        if (board == null) return CompletableFuture.completedFuture(null);
+
+        return refresh(key, board, api);
+    }
+
+    private CompletableFuture<Void> refresh(Key key, Board board, MCServerAPI sender) {
+        final CompletableFuture<Void> future;
+        final Map<String, Integer> snapshot;
+
+        synchronized (board) {
+            if (board.refreshing != null) return board.refreshing;
+
+            // increments recorded until now will be contained in the fetched leaderboard
+            snapshot = new HashMap<>(board.deltas);
+            future = new CompletableFuture<>();
+            board.refreshing = future;
+        }
+
+        sender.getPlayersRankedBy(key.property, key.amount).whenComplete((players, error) -> {
+            synchronized (board) {
+                board.refreshing = null;
+            }
+
+            // the board might have been untracked in the meantime, it is only updated while it is tracked
+            if (error == null && players != null && boards.get(key) == board) {
+                board.players = Collections.unmodifiableList(new ArrayList<>(players));
+                snapshot.forEach((uuid, delta) -> board.deltas.computeIfPresent(uuid, (id, value) -> value - delta == 0 ? null : value - delta));
+            }
+
+            if (error != null) future.completeExceptionally(error);
+            else future.complete(null);
+        });
+
+        return future;
+    }
+
+    /**
+     * Starts refreshing all tracked leaderboards periodically.
+     *
+     * @param scheduler The scheduler to use.
+     * @param period    The period between refreshes.
+     * @param unit      The unit of the period.
+     */
+    public synchronized void start(ScheduledExecutorService scheduler, long period, TimeUnit unit) {
+        if (refreshTask != null) throw new IllegalStateException("Already started");
+        // periodic refreshes are not waited for by players, so they must not delay interactive requests
+        refreshTask = scheduler.scheduleAtFixedRate(() -> refreshAll(backgroundApi), period, period, unit);
+    }
+
+    /**
+     * Stops refreshing the leaderboards periodically.
+     */
+    public synchronized void stop() {
+        if (refreshTask == null) return;
+
+        refreshTask.cancel(false);
+        refreshTask = null;
+    }
+
+    /**
+     * Stops refreshing the leaderboards and stops recording the increments sent with the {@link MCServerAPI}.
+     */
+    @Override
+    public void close() {
+        stop();
+        api.removeIncrementListener(incrementListener);
+    }
+
+    public static class Entry {
+
+        private final int rank;
+        private final MCPlayer player;
+        private final int pendingDelta;
+        private final int score;
+
+        protected Entry(int rank, MCPlayer player, int pendingDelta, int score) {
+            this.rank = rank;
+            this.player = player;
+            this.pendingDelta = pendingDelta;
+            this.score = score;
+        }
+
+        /**
+         * @return The rank, starting with 1.
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        public MCPlayer getPlayer() {
+            return player;
+        }
+
+        /**
+         * @return The sum of increments recorded for the player since the leaderboard was fetched.
+         */
+        public int getPendingDelta() {
+            return pendingDelta;
+        }
+
+        /**
+         * @return The score of the player including the pending increments, or 0, if the cache has no score function.
+         */
+        public int getScore() {
+            return score;
+        }
+
+        protected Entry withRank(int rank) {
+            return new Entry(rank, player, pendingDelta, score);
+        }
+    }
+
+    private static class Board {
+
+        private volatile List<MCPlayer> players = Collections.emptyList();
+        private final Map<String, Integer> deltas = new ConcurrentHashMap<>();
+        @Nullable
+        private CompletableFuture<Void> refreshing = null;
+    }
+
+    private static class Key {
+
+        private final String property;
+        private final int amount;
+
+        Key(String property, int amount) {
+            this.property = Objects.requireNonNull(property);
+            this.amount = amount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return amount == key.amount && property.equals(key.property);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(property, amount);
+        }
+    }
+}
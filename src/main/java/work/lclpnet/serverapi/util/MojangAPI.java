@@ -10,6 +10,8 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import work.lclpnet.lclpnetwork.api.APIException;
 import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.serverapi.jfr.EventSpan;
+import work.lclpnet.serverapi.jfr.FlightEvents;
 
 import java.io.IOException;
 import java.net.ConnectException;
@@ -26,7 +28,9 @@ public class MojangAPI {
      * @return A completable future which will receive the fetched UUID.
      */
     public static CompletableFuture<String> getUUIDByUsername(String username) {
-        return CompletableFuture.supplyAsync(() -> sendHttpGetSync(String.format("https://api.mojang.com/users/profiles/minecraft/%s", username)
+        EventSpan span = FlightEvents.beginMojangLookup("uuid-by-name", username);
+
+        return span.endWhenDone(CompletableFuture.supplyAsync(() -> sendHttpGetSync(String.format("https://api.mojang.com/users/profiles/minecraft/%s", username)
         )).thenApply(resp -> {
             if (resp.getResponseCode() != 200) return null;
 
@@ -42,7 +46,7 @@ public class MojangAPI {
                 builder.insert(8, "-");
                 return builder.toString();
             }
-        });
+        }));
     }
 
     /**
@@ -52,7 +56,9 @@ public class MojangAPI {
      * @return A completable future which will receive the fetched username.
      */
     public static CompletableFuture<String> getUsernameByUUID(String uuid) {
-        return CompletableFuture.supplyAsync(() -> sendHttpGetSync(String.format("https://sessionserver.mojang.com/session/minecraft/profile/%s",
+        EventSpan span = FlightEvents.beginMojangLookup("name-by-uuid", uuid);
+
+        return span.endWhenDone(CompletableFuture.supplyAsync(() -> sendHttpGetSync(String.format("https://sessionserver.mojang.com/session/minecraft/profile/%s",
                 uuid.replaceAll("-", "")))
         ).thenApply(resp -> {
             if (resp.getResponseCode() != 200) return null;
@@ -61,7 +67,7 @@ public class MojangAPI {
             if (!obj.has("name")) return null;
 
             return obj.get("name").getAsString();
-        });
+        }));
     }
 
     private static APIResponse sendHttpGetSync(String url) throws APIException {
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import work.lclpnet.serverapi.MCServerAPI;
+import work.lclpnet.serverapi.jfr.FlightEvents;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the results of {@link MCServerAPI#isNetworkOperator(String)}, so that permission checks on hot paths cost a map lookup.
+ * Implementations should call {@link #prefetch(MCServerAPI, String)} when a player joins.
+ * Expired statuses are kept for a limited stale window, so that they can be served while the backend is unreachable.
+ * Entries past that window are evicted.
+ */
+public class OperatorCache {
+
+    private static final long DEFAULT_STALE_WINDOW_MINUTES = 60L;
+    private static final int PUTS_PER_SWEEP = 256;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Status>> fetching = new ConcurrentHashMap<>();
+    private final long ttlNanos, staleWindowNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger putsSinceSweep = new AtomicInteger(0);
+    private long generation = 0L;
+
+    public OperatorCache() {
+        this(5, TimeUnit.MINUTES);
+    }
+
+    public OperatorCache(long ttl, TimeUnit unit) {
+        this(ttl, unit, System::nanoTime);
+    }
+
+    public OperatorCache(long ttl, TimeUnit unit, LongSupplier nanoClock) {
+        this(ttl, unit.convert(DEFAULT_STALE_WINDOW_MINUTES, TimeUnit.MINUTES), unit, nanoClock);
+    }
+
+    /**
+     * @param ttl         The time, for which a status is valid.
+     * @param staleWindow The time after expiry, for which a status is kept, to be served while the backend is unreachable.
+     * @param unit        The unit of ttl and stale window.
+     * @param nanoClock   The clock to use.
+     */
+    public OperatorCache(long ttl, long staleWindow, TimeUnit unit, LongSupplier nanoClock) {
+        if (ttl <= 0L) throw new IllegalArgumentException("The ttl must be greater than 0");
+        if (staleWindow < 0L) throw new IllegalArgumentException("The stale window must not be negative");
+
+        this.ttlNanos = unit.toNanos(ttl);
+        this.staleWindowNanos = unit.toNanos(staleWindow);
+        this.nanoClock = Objects.requireNonNull(nanoClock);
+    }
+
+    /**
+     * Looks up the cached operator status of a player. This method never blocks.
+     *
+     * @param playerUuid The player UUID.
+     * @return The cached status, or {@link Status#UNKNOWN}, if there is no valid cache entry.
+     */
+    public Status getStatus(String playerUuid) {
+        Objects.requireNonNull(playerUuid);
+
+        Entry entry = lookup(playerUuid);
+        boolean hit = entry != null && nanoClock.getAsLong() - entry.expiresAt < 0L;
+        FlightEvents.cacheLookup("operators", hit);
+
+        // expired entries are kept for the stale window, so that they can still be served, while the backend is unreachable
+        return hit ? entry.status : Status.UNKNOWN;
+    }
+
+    /**
+     * Looks up the cached operator status of a player, even if it has expired, as long as it is within the stale window.
+     *
+     * @param playerUuid The player UUID.
+     * @return The cached status, or {@link Status#UNKNOWN}, if there is no cache entry.
+     */
+    public Status getStaleStatus(String playerUuid) {
+        Objects.requireNonNull(playerUuid);
+
+        Entry entry = lookup(playerUuid);
+        return entry != null ? entry.status : Status.UNKNOWN;
+    }
+
+    @Nullable
+    private Entry lookup(String playerUuid) {
+        Entry entry = entries.get(playerUuid);
+        if (entry == null || !isEvictable(entry, nanoClock.getAsLong())) return entry;
+
+        entries.remove(playerUuid, entry);
+        return null;
+    }
+
+    private boolean isEvictable(Entry entry, long now) {
+        return now - entry.expiresAt - staleWindowNanos >= 0L;
+    }
+
+    /**
+     * @return The number of cached statuses, including expired ones that were not evicted yet.
+     */
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * @param playerUuid The player UUID.
+     * @return True, if the player is known to be a network operator.
+     */
+    public boolean isOperator(String playerUuid) {
+        return getStatus(playerUuid) == Status.OPERATOR;
+    }
+
+    /**
+     * Fetches the operator status of a player and caches it.
+     * Concurrent fetches for the same player are coalesced.
+     * If the player or the whole cache is invalidated while the status is fetched, the fetched status is not cached.
+     *
+     * @param api        The API instance to use.
+     * @param playerUuid The player UUID.
+     * @return A completable future that will contain the fetched status.
+     */
+    public CompletableFuture<Status> prefetch(MCServerAPI api, String playerUuid) {
+        Objects.requireNonNull(api);
+        Objects.requireNonNull(playerUuid);
+
+        CompletableFuture<Status> future = new CompletableFuture<>();
+        final long generation;
+
+        synchronized (this) {
+            CompletableFuture<Status> existing = fetching.putIfAbsent(playerUuid, future);
+            if (existing != null) return existing;
+
+            generation = this.generation;
+        }
+
+        api.isNetworkOperator(playerUuid).whenComplete((operator, error) -> {
+            // null means that there is no such MCPlayer, which can't be an operator either
+            boolean op = error == null && operator != null && operator;
+
+            synchronized (this) {
+                // if the player or the whole cache was invalidated in the meantime, the fetched status might be outdated,
+                // e.g. if the player was de-opped. An invalidation removes the fetch, so it is no longer the current one
+                boolean current = fetching.remove(playerUuid, future);
+
+                if (error == null && current && generation == this.generation) put(playerUuid, op);
+            }
+
+            if (error != null) future.completeExceptionally(error);
+            else future.complete(op ? Status.OPERATOR : Status.NOT_OPERATOR);
+        });
+
+        return future;
+    }
+
+    /**
+     * Gets the operator status of a player from the cache, or fetches it, if it is not cached.
+     *
+     * @param api        The API instance to use.
+     * @param playerUuid The player UUID.
+     * @return A completable future that will contain whether the player is a network operator.
+     */
+    public CompletableFuture<Boolean> isNetworkOperator(MCServerAPI api, String playerUuid) {
+        Status status = getStatus(playerUuid);
+
+        if (status != Status.UNKNOWN) {
+            return CompletableFuture.completedFuture(status == Status.OPERATOR);
+        }
+
+        return prefetch(api, playerUuid).thenApply(fetched -> fetched == Status.OPERATOR);
+    }
+
+    /**
+     * Gets the operator status of a player like {@link #isNetworkOperator(MCServerAPI, String)}.
+     * If the backend is unreachable, an expired status is served instead.
+     *
+     * @param api        The API instance to use.
+     * @param playerUuid The player UUID.
+     * @return A completable future that will contain whether the player is a network operator, which is stale, if an expired status was served.
+     */
+    public CompletableFuture<CachedValue<Boolean>> fetchNetworkOperator(MCServerAPI api, String playerUuid) {
+        return ServerCache.withFallback(isNetworkOperator(api, playerUuid), () -> {
+            Status status = getStaleStatus(playerUuid);
+            return status != Status.UNKNOWN ? status == Status.OPERATOR : null;
+        });
+    }
+
+    /**
+     * Caches the operator status of a player.
+     *
+     * @param playerUuid The player UUID.
+     * @param operator   Whether the player is a network operator.
+     */
+    public void put(String playerUuid, boolean operator) {
+        Objects.requireNonNull(playerUuid);
+        long now = nanoClock.getAsLong();
+        entries.put(playerUuid, new Entry(operator ? Status.OPERATOR : Status.NOT_OPERATOR, now + ttlNanos));
+
+        // entries of players that are not looked up again are evicted by a periodic sweep
+        if (putsSinceSweep.incrementAndGet() >= PUTS_PER_SWEEP) {
+            putsSinceSweep.set(0);
+            evictStale(now);
+        }
+    }
+
+    /**
+     * Evicts all statuses that are past the stale window.
+     */
+    public void evictStale() {
+        evictStale(nanoClock.getAsLong());
+    }
+
+    private void evictStale(long now) {
+        entries.values().removeIf(entry -> isEvictable(entry, now));
+    }
+
+    /**
+     * Invalidates the cached status of a player, e.g. because their permissions changed.
+     * If the status of the player is being fetched, it is not cached, the next {@link #prefetch(MCServerAPI, String)} fetches again.
+     * Fetches of other players are not affected.
+     *
+     * @param playerUuid The player UUID.
+     */
+    public synchronized void invalidate(String playerUuid) {
+        Objects.requireNonNull(playerUuid);
+        entries.remove(playerUuid);
+        // only the fetch of this player is discarded, fetches of other players are still cached
+        fetching.remove(playerUuid);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        fetching.clear();
+        generation++;
+    }
+
+    public enum Status {
+
+        OPERATOR,
+        NOT_OPERATOR,
+        UNKNOWN
+
+    }
+
+    private static class Entry {
+
+        private final Status status;
+        private final long expiresAt;
+
+        Entry(Status status, long expiresAt) {
+            this.status = status;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of pending requests triggered by players, so that they can be cancelled once the player disconnects.
+ */
+public class RequestTracker {
+
+    private final Map<String, Set<CompletableFuture<?>>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Tracks a future for a player, until it is completed.
+     *
+     * @param playerUuid The UUID of the player who triggered the request.
+     * @param future     The future of the request.
+     * @param <T>        The type of the future.
+     * @return The same future.
+     */
+    public <T> CompletableFuture<T> track(String playerUuid, CompletableFuture<T> future) {
+        Objects.requireNonNull(playerUuid);
+        Objects.requireNonNull(future);
+
+        if (future.isDone()) return future;
+
+        pending.computeIfAbsent(playerUuid, uuid -> ConcurrentHashMap.newKeySet()).add(future);
+
+        future.whenComplete((result, error) -> pending.computeIfPresent(playerUuid, (uuid, futures) -> {
+            futures.remove(future);
+            return futures.isEmpty() ? null : futures;
+        }));
+
+        return future;
+    }
+
+    /**
+     * @param playerUuid The player UUID.
+     * @return The number of pending requests of the player.
+     */
+    public int getPendingCount(String playerUuid) {
+        Set<CompletableFuture<?>> futures = pending.get(playerUuid);
+        return futures == null ? 0 : futures.size();
+    }
+
+    /**
+     * Cancels all pending requests of a player.
+     *
+     * @param playerUuid The player UUID.
+     * @return The number of cancelled requests.
+     */
+    public int cancelAll(String playerUuid) {
+        Objects.requireNonNull(playerUuid);
+
+        Set<CompletableFuture<?>> futures = pending.remove(playerUuid);
+        if (futures == null) return 0;
+
+        int cancelled = 0;
+
+        for (CompletableFuture<?> future : futures) {
+            if (future.cancel(true)) cancelled++;
+        }
+
+        return cancelled;
+    }
+}
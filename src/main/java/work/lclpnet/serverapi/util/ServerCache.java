@@ -9,15 +9,21 @@ package work.lclpnet.serverapi.util;
 import work.lclpnet.lclpnetwork.ext.LCLPMinecraftAPI;
 import work.lclpnet.lclpnetwork.facade.MCPlayer;
 import work.lclpnet.serverapi.MCServerAPI;
+import work.lclpnet.serverapi.jfr.FlightEvents;
+import work.lclpnet.serverapi.net.Deadlines;
+import work.lclpnet.serverapi.net.OfflineQueue;
 
 import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class ServerCache {
 
     private final Map<String, MCPlayer> playersByUuid = new HashMap<>();
     private final List<String> registeredLanguages = new ArrayList<>();
+    private final RequestTracker requestTracker = new RequestTracker();
+    private final OperatorCache operatorCache = new OperatorCache();
 
     public void cachePlayer(MCPlayer player) {
         Objects.requireNonNull(player);
@@ -32,13 +38,31 @@ public class ServerCache {
     @Nullable
     public MCPlayer getPlayer(String uuid) {
         Objects.requireNonNull(uuid);
-        return playersByUuid.get(uuid);
+
+        MCPlayer player = playersByUuid.get(uuid);
+        FlightEvents.cacheLookup("players", player != null);
+
+        return player;
     }
 
     public List<String> getRegisteredLanguages() {
         return registeredLanguages;
     }
 
+    /**
+     * @return The tracker for pending requests triggered by players.
+     */
+    public RequestTracker getRequestTracker() {
+        return requestTracker;
+    }
+
+    /**
+     * @return The cache for network operator statuses.
+     */
+    public OperatorCache getOperatorCache() {
+        return operatorCache;
+    }
+
     public CompletableFuture<Void> refreshRegisteredLanguages(MCServerAPI api) {
         return api.getRegisteredLanguages().thenAccept(languages -> {
             registeredLanguages.clear();
@@ -55,6 +79,61 @@ public class ServerCache {
         });
     }
 
+    /**
+     * Fetches a player and caches it. If the backend is unreachable, the cached player is served instead.
+     *
+     * @param api  The API instance to use.
+     * @param uuid The player UUID.
+     * @return A completable future that will contain the player, which is stale, if it was served from the cache.
+     */
+    public CompletableFuture<CachedValue<MCPlayer>> fetchPlayer(LCLPMinecraftAPI api, String uuid) {
+        return withFallback(api.getMCPlayerByUUID(uuid).thenApply(player -> {
+            if (player != null) cachePlayer(player);
+            return player;
+        }), () -> getPlayer(uuid));
+    }
+
+    /**
+     * Fetches the registered languages and caches them.
+     * If the backend is unreachable, the cached languages are served instead.
+     *
+     * @param api The API instance to use.
+     * @return A completable future that will contain the languages, which are stale, if they were served from the cache.
+     */
+    public CompletableFuture<CachedValue<List<String>>> fetchRegisteredLanguages(MCServerAPI api) {
+        return withFallback(refreshRegisteredLanguages(api).thenApply(nil -> new ArrayList<>(registeredLanguages)),
+                () -> registeredLanguages.isEmpty() ? null : new ArrayList<>(registeredLanguages));
+    }
+
+    /**
+     * Serves a cached value, if a future fails, because the backend is unavailable,
+     * e.g. unreachable, the circuit breaker is open or the deadline was exceeded, see {@link OfflineQueue#isTransientFailure(Throwable)}.
+     *
+     * @param future   The future of the request.
+     * @param fallback A supplier for the cached value. If it supplies null, the original failure is kept.
+     * @param <T>      The type of the value.
+     * @return A completable future that will contain the fetched or the cached value.
+     */
+    public static <T> CompletableFuture<CachedValue<T>> withFallback(CompletableFuture<T> future, Supplier<T> fallback) {
+        CompletableFuture<CachedValue<T>> result = new CompletableFuture<>();
+
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(CachedValue.fresh(value));
+                return;
+            }
+
+            T cached = OfflineQueue.isTransientFailure(error) ? fallback.get() : null;
+
+            if (cached != null) result.complete(CachedValue.stale(cached));
+            else result.completeExceptionally(error);
+        });
+
+        Deadlines.propagateCancellation(result, future);
+
+        return result;
+    }
+
     /* Those methods should be called from somewhere in the implementation */
 
     /**
@@ -68,12 +147,14 @@ public class ServerCache {
     }
 
     /**
-     * Removes all cache items for the given player UUID.
+     * Removes all cache items for the given player UUID and cancels the player's pending requests.
      * Implementations should call this, if a player leaves the server.
      *
      * @param uuid The player UUID.
      */
     public void dropAllCachesFor(String uuid) {
         removeCachedPlayer(uuid);
+        operatorCache.invalidate(uuid);
+        requestTracker.cancelAll(uuid);
     }
 }
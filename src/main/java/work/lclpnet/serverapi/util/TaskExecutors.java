@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates executors that run every task on its own thread.
+ * On Java 21 and later, virtual threads are used (see the multi-release variant in src/main/java21).
+ * On older runtimes, a cached pool of daemon platform threads is used instead.
+ */
+public class TaskExecutors {
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * @return Whether the executors of this class use virtual threads.
+     */
+    public static boolean isVirtual() {
+        return false;
+    }
+
+    /**
+     * Creates an executor that runs every task on its own thread.
+     *
+     * @param name The name prefix of the threads.
+     * @return A new executor service.
+     */
+    public static ExecutorService newPerTaskExecutor(String name) {
+        final AtomicInteger counter = new AtomicInteger();
+
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return Executors.newCachedThreadPool(factory);
+    }
+}
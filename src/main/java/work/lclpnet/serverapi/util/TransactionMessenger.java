@@ -7,11 +7,14 @@
 package work.lclpnet.serverapi.util;
 
 import work.lclpnet.serverapi.msg.MCMessage;
+import work.lclpnet.serverapi.msg.MessageTemplate;
 
 import java.util.Objects;
 
 public class TransactionMessenger {
 
+    private volatile Templates templates = null;
+
     public static TransactionMessenger getInstance() {
         return Holder.instance;
     }
@@ -32,14 +35,23 @@ public class TransactionMessenger {
         if (amount == 0) return;
 
         boolean positive = amount > 0;
+        Templates templates = getTemplates();
+        MessageTemplate template = positive ? templates.positive : templates.negative;
+
+        bridge.sendMessageTo(playerUuid, template.create(positive ? "+" + amount + " " : amount + " ", statKey));
+    }
+
+    private Templates getTemplates() {
+        Templates templates = this.templates;
+        String prefix = MCMessage.getPrefix();
+
+        // the templates contain the prefix, so they have to be rebuilt when it changes
+        if (templates == null || !templates.prefix.equals(prefix)) {
+            templates = new Templates(prefix);
+            this.templates = templates;
+        }
 
-        bridge.sendMessageTo(playerUuid, MCMessage.prefixed()
-                .then(MCMessage.blank()
-                        .then(MCMessage.blank().text(String.format("%s%s ", positive ? "+" : "", amount)))
-                        .thenTranslate(statKey)
-                        .setColor(positive ? MCMessage.MessageColor.GRAY : MCMessage.MessageColor.RED)
-                )
-        );
+        return templates;
     }
 
     public void sendCoinsChange(IPlatformBridge bridge, String playerUuid, int amount) {
@@ -50,6 +62,29 @@ public class TransactionMessenger {
         sendStatChangeMessage(bridge, playerUuid, "stat.general.points", amount);
     }
 
+    private static class Templates {
+
+        private final String prefix;
+        private final MessageTemplate positive, negative;
+
+        Templates(String prefix) {
+            this.prefix = prefix;
+            this.positive = createTemplate(prefix, MCMessage.MessageColor.GRAY);
+            this.negative = createTemplate(prefix, MCMessage.MessageColor.RED);
+        }
+
+        private static MessageTemplate createTemplate(String prefix, MCMessage.MessageColor color) {
+            // argument 0 is the formatted amount, argument 1 the stat translation key
+            return MessageTemplate.of(MCMessage.prefixed(prefix)
+                    .then(MCMessage.blank()
+                            .then(MessageTemplate.text(0))
+                            .then(MessageTemplate.translate(1))
+                            .setColor(color)
+                    )
+            );
+        }
+    }
+
     // lazy loaded singleton
     private static class Holder {
         private static final TransactionMessenger instance = new TransactionMessenger();
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.jfr;
+
+import jdk.jfr.*;
+
+@Name("work.lclpnet.serverapi.CacheLookup")
+@Label("Cache Lookup")
+@Description("A lookup in one of the caches of the library")
+@Category({"LCLPNetwork", "MCServerAPI"})
+@StackTrace(false)
+class CacheLookupEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Hit")
+    boolean hit;
+}
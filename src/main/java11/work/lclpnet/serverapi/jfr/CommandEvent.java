@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("work.lclpnet.serverapi.Command")
+@Label("Command Execution")
+@Description("The execution of a command scheme, until its result is available")
+class CommandEvent extends SpanEvent {
+
+    @Label("Command")
+    String command;
+
+    @Label("Player")
+    String player;
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * Emits custom Java Flight Recorder events for library activity, so that it can be correlated with lag in recordings.
+ * This is the Java 11 variant of the multi-release jar, which emits the events.
+ * If an event is not enabled in the current recording, the methods return immediately without allocating.
+ */
+public class FlightEvents {
+
+    private static final EventType REQUEST = EventType.getEventType(ApiRequestEvent.class);
+    private static final EventType MOJANG_LOOKUP = EventType.getEventType(MojangLookupEvent.class);
+    private static final EventType COMMAND = EventType.getEventType(CommandEvent.class);
+    private static final EventType CACHE_LOOKUP = EventType.getEventType(CacheLookupEvent.class);
+
+    private FlightEvents() {
+    }
+
+    /**
+     * @return Whether this runtime supports the events of this class.
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Begins an event for a request to the LCLPNetwork backend.
+     *
+     * @param method   The request method.
+     * @param endpoint The endpoint path.
+     * @return The started event, which must be ended with the response code.
+     */
+    public static EventSpan beginRequest(String method, String endpoint) {
+        if (!REQUEST.isEnabled()) return EventSpan.NOOP;
+
+        ApiRequestEvent event = new ApiRequestEvent();
+        event.method = method;
+        event.endpoint = endpoint;
+
+        return new RecordingSpan(event);
+    }
+
+    /**
+     * Begins an event for a lookup at the Mojang API.
+     *
+     * @param lookup The kind of lookup, e.g. "uuid-by-name".
+     * @param query  The queried name or UUID.
+     * @return The started event.
+     */
+    public static EventSpan beginMojangLookup(String lookup, String query) {
+        if (!MOJANG_LOOKUP.isEnabled()) return EventSpan.NOOP;
+
+        MojangLookupEvent event = new MojangLookupEvent();
+        event.lookup = lookup;
+        event.query = query;
+
+        return new RecordingSpan(event);
+    }
+
+    /**
+     * Begins an event for the execution of a command scheme.
+     *
+     * @param command    The name of the command scheme.
+     * @param playerUuid The UUID of the player who executed the command.
+     * @return The started event.
+     */
+    public static EventSpan beginCommand(String command, String playerUuid) {
+        if (!COMMAND.isEnabled()) return EventSpan.NOOP;
+
+        CommandEvent event = new CommandEvent();
+        event.command = command;
+        event.player = playerUuid;
+
+        return new RecordingSpan(event);
+    }
+
+    /**
+     * Emits an event for a cache lookup.
+     *
+     * @param cache The name of the cache.
+     * @param hit   Whether the lookup was a hit.
+     */
+    public static void cacheLookup(String cache, boolean hit) {
+        if (!CACHE_LOOKUP.isEnabled()) return;
+
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.cache = cache;
+        event.hit = hit;
+        event.commit();
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("work.lclpnet.serverapi.MojangLookup")
+@Label("Mojang Lookup")
+@Description("A lookup of a player name or UUID at the Mojang API")
+class MojangLookupEvent extends SpanEvent {
+
+    @Label("Lookup")
+    String lookup;
+
+    @Label("Query")
+    String query;
+}
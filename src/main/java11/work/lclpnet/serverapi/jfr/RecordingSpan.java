@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.jfr;
+
+/**
+ * A span that commits a started flight recorder event.
+ */
+class RecordingSpan extends EventSpan {
+
+    private final SpanEvent event;
+
+    RecordingSpan(SpanEvent event) {
+        this.event = event;
+        event.begin();
+    }
+
+    @Override
+    public void end(int status) {
+        if (event instanceof ApiRequestEvent) {
+            ((ApiRequestEvent) event).status = status;
+        }
+
+        event.commit();
+    }
+
+    @Override
+    public void fail(Throwable error) {
+        event.error = error.getClass().getSimpleName() + ": " + error.getMessage();
+        event.commit();
+    }
+}
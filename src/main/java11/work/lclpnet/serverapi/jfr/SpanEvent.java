@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of events with a duration, which are ended through an {@link EventSpan}.
+ */
+@Category({"LCLPNetwork", "MCServerAPI"})
+@StackTrace(false)
+abstract class SpanEvent extends Event {
+
+    @Label("Error")
+    String error;
+}
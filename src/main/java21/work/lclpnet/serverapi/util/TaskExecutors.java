@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors that run every task on its own virtual thread.
+ * This is the Java 21 variant of the multi-release jar.
+ */
+public class TaskExecutors {
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * @return Whether the executors of this class use virtual threads.
+     */
+    public static boolean isVirtual() {
+        return true;
+    }
+
+    /**
+     * Creates an executor that runs every task on its own virtual thread.
+     *
+     * @param name The name prefix of the threads.
+     * @return A new executor service.
+     */
+    public static ExecutorService newPerTaskExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+}
@@ -12,9 +12,16 @@ import work.lclpnet.lclpnetwork.facade.MCStats;
 import work.lclpnet.serverapi.MCServerAPI;
 import work.lclpnet.serverapi.msg.MCMessage;
 import work.lclpnet.serverapi.msg.RawMCMessageImplementation;
+import work.lclpnet.serverapi.standin.StandInServer;
 import work.lclpnet.serverapi.util.*;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class StatsCommandTests {
 
@@ -117,4 +124,131 @@ public class StatsCommandTests {
         messenger.sendStatChangeMessage(testBridge, "7357a549-fa3e-4342-91b2-63e5e73ed39a", "stat.general.coins", 5);
         messenger.sendStatChangeMessage(testBridge, "7357a549-fa3e-4342-91b2-63e5e73ed39a", "stat.general.coins", -2);
     }
+
+    @Test
+    void traceStages() {
+        List<CommandTrace> traces = new ArrayList<>();
+
+        IPlatformBridge unknownNames = new IPlatformBridge() {
+            @Override
+            public void sendMessageTo(String playerUuid, MCMessage msg) {}
+
+            @Override
+            public CompletableFuture<String> getPlayerNameByUUID(String playerUuid) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<String> getPlayerUUIDByName(String name) {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+
+        StatsCommandScheme traced = new StatsCommandScheme() {
+            @Override
+            public boolean shouldDebug() {
+                return false;
+            }
+
+            @Override
+            public void openStats(String invokerUuid, String targetUuid, MCMessage title, MCStats targetStats) {}
+
+            @Override
+            public MCServerAPI getAPI() {
+                return testStatsCommand.getAPI();
+            }
+
+            @Override
+            public IPlatformBridge getPlatformBridge() {
+                return unknownNames;
+            }
+
+            @Override
+            public ServerContext getContext() {
+                return testServerContext;
+            }
+
+            @Override
+            public CommandTraceListener getTraceListener() {
+                return traces::add;
+            }
+        };
+
+        traced.execute("7357a549-fa3e-4342-91b2-63e5e73ed39a", new Object[]{"Nobody"}).join();
+
+        assertEquals(1, traces.size());
+
+        CommandTrace trace = traces.get(0);
+        assertEquals("stats", trace.getCommand());
+        assertNull(trace.getFailure());
+        assertTrue(trace.getDuration(TimeUnit.NANOSECONDS) >= 0L);
+        assertEquals(1, trace.getStages().size());
+        assertEquals(StatsCommandScheme.STAGE_NAME_RESOLUTION, trace.getStages().get(0).getName());
+        assertFalse(trace.getStages().get(0).isFailed());
+    }
+
+    @Test
+    void traceStagesKnownName() throws IOException {
+        List<CommandTrace> traces = new ArrayList<>();
+
+        IPlatformBridge knownNames = new IPlatformBridge() {
+            @Override
+            public void sendMessageTo(String playerUuid, MCMessage msg) {}
+
+            @Override
+            public CompletableFuture<String> getPlayerNameByUUID(String playerUuid) {
+                return CompletableFuture.completedFuture("Somebody");
+            }
+
+            @Override
+            public CompletableFuture<String> getPlayerUUIDByName(String name) {
+                return CompletableFuture.completedFuture("7357a549-fa3e-4342-91b2-63e5e73ed39a");
+            }
+        };
+
+        try (StandInServer server = new StandInServer()) {
+            MCServerAPI api = server.createAPI();
+
+            StatsCommandScheme traced = new StatsCommandScheme() {
+                @Override
+                public boolean shouldDebug() {
+                    return false;
+                }
+
+                @Override
+                public void openStats(String invokerUuid, String targetUuid, MCMessage title, MCStats targetStats) {}
+
+                @Override
+                public MCServerAPI getAPI() {
+                    return api;
+                }
+
+                @Override
+                public IPlatformBridge getPlatformBridge() {
+                    return knownNames;
+                }
+
+                @Override
+                public ServerContext getContext() {
+                    return testServerContext;
+                }
+
+                @Override
+                public CommandTraceListener getTraceListener() {
+                    return traces::add;
+                }
+            };
+
+            traced.execute("7357a549-fa3e-4342-91b2-63e5e73ed39a", new Object[]{"Somebody"}).join();
+        }
+
+        assertEquals(1, traces.size());
+
+        // the name is resolved first, then the player is looked up in the backend, each in its own stage
+        List<CommandTrace.Stage> stages = traces.get(0).getStages();
+        assertTrue(stages.size() >= 2);
+        assertEquals(StatsCommandScheme.STAGE_NAME_RESOLUTION, stages.get(0).getName());
+        assertFalse(stages.get(0).isFailed());
+        assertEquals(StatsCommandScheme.STAGE_PLAYER_LOOKUP, stages.get(1).getName());
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.metrics;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import work.lclpnet.lclpnetwork.api.APIException;
+import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.serverapi.net.ApiRequest;
+import work.lclpnet.serverapi.net.RequestPipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTests {
+
+    @Test
+    void histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(100, histogram.getMax(TimeUnit.MILLISECONDS));
+
+        // buckets have a relative error of at most 1/16
+        long p50 = histogram.getPercentile(50, TimeUnit.MICROSECONDS);
+        assertTrue(p50 >= 50_000 && p50 <= 50_000 * 17 / 16, "Unexpected p50 " + p50);
+
+        long p99 = histogram.getPercentile(99, TimeUnit.MICROSECONDS);
+        assertTrue(p99 >= 99_000 && p99 <= 100_000, "Unexpected p99 " + p99);
+    }
+
+    @Test
+    void interceptorTracksInFlightAndFailures() {
+        List<CompletableFuture<APIResponse>> pending = new ArrayList<>();
+        RequestPipeline pipeline = new RequestPipeline(request -> {
+            CompletableFuture<APIResponse> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+
+        AtomicLong clock = new AtomicLong();
+        InMemoryMetricsSink sink = new InMemoryMetricsSink();
+        pipeline.addInterceptor(new MetricsInterceptor(sink, clock::get));
+
+        JsonObject body = new JsonObject();
+        body.addProperty("uuid", "\u00e4");  // two bytes in UTF-8
+        ApiRequest request = ApiRequest.post("api/mc/admin/is-network-operator", body);
+
+        pipeline.execute(request);
+        pipeline.execute(request);
+        assertEquals(2, sink.getInFlight());
+
+        InMemoryMetricsSink.EndpointMetrics metrics = sink.getEndpoint(request.getPath());
+        assertNotNull(metrics);
+        assertEquals(2 * 13L, metrics.getRequestBytes());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+        pending.get(0).completeExceptionally(APIException.NO_CONNECTION);
+        pending.get(1).cancel(true);
+
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(1L, (long) metrics.getFailureCounts().get("APIException"));
+        assertEquals(1L, (long) metrics.getFailureCounts().get("CancellationException"));
+        assertEquals(20, metrics.getLatency().getMax(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import org.junit.jupiter.api.Test;
+import work.lclpnet.translations.Translator;
+
+import javax.annotation.Nonnull;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JsonMessageSerializerTests {
+
+    private final JsonMessageSerializer serializer = new JsonMessageSerializer(new TestTranslator()
+            .put("stats.title.player", "Stats of %s")
+            .put("mc.player.swap", "%2$s and %1$s"));
+
+    @Test
+    void plainText() {
+        assertEquals("{\"text\":\"Hello\"}", serializer.toJson(MCMessage.blank().text("Hello"), "en_us"));
+    }
+
+    @Test
+    void prefixedTranslation() {
+        MCMessage msg = MCMessage.prefixed("Test").thenTranslate("stats.title.player", MCMessage.blank()
+                .setColor(MCMessage.MessageColor.YELLOW)
+                .text("Steve"));
+
+        assertEquals("{\"text\":\"\",\"color\":\"gray\",\"extra\":[" +
+                "{\"text\":\"Test> \",\"color\":\"blue\"}," +
+                "{\"text\":\"Stats of \",\"extra\":[{\"text\":\"Steve\",\"color\":\"yellow\"}]}]}",
+                serializer.toJson(msg, "en_us"));
+    }
+
+    @Test
+    void reorderedSubstitutes() {
+        MCMessage msg = MCMessage.blank().thenTranslate("mc.player.swap",
+                MCMessage.blank().text("a"), MCMessage.blank().text("b"));
+
+        assertEquals("{\"text\":\"\",\"extra\":[{\"text\":\"\",\"extra\":[{\"text\":\"b\"},\" and \",{\"text\":\"a\"}]}]}",
+                serializer.toJson(msg, "en_us"));
+    }
+
+    @Test
+    void stylesAreResolved() {
+        MCMessage msg = MCMessage.blank()
+                .editStyle(style -> style.withBold(true))
+                .setColor(new MCMessage.MessageColor(18, 52, 86))
+                .then(MCMessage.blank().text("local"))
+                .then(MCMessage.inherit().text("inherit"))
+                .thenTranslate("missing.key");
+
+        assertEquals("{\"text\":\"\",\"color\":\"#123456\",\"bold\":true,\"extra\":[" +
+                "{\"text\":\"local\",\"bold\":false}," +
+                "{\"text\":\"inherit\",\"bold\":false}," +
+                "{\"text\":\"missing.key\",\"bold\":false}]}",
+                serializer.toJson(msg, "en_us"));
+    }
+
+    @Test
+    void inheritKeepsOwnFormatting() {
+        MCMessage msg = MCMessage.blank()
+                .setColor(MCMessage.MessageColor.RED)
+                .then(MCMessage.inherit().editStyle(style -> style.withBold(true)).text("bold"));
+
+        assertEquals("{\"text\":\"\",\"color\":\"red\",\"extra\":[{\"text\":\"bold\",\"bold\":true}]}",
+                serializer.toJson(msg, "en_us"));
+    }
+
+    @Test
+    void compactJson() {
+        MCMessage msg = MCMessage.blank().setColor(MCMessage.MessageColor.YELLOW)
+                .then(MCMessage.blank().text("Hello"))
+                .then(MCMessage.blank().then(MCMessage.inherit().text(" World")))
+                .thenDot();
+
+        assertEquals("{\"text\":\"\",\"color\":\"yellow\",\"extra\":[{\"text\":\"Hello\"},{\"text\":\"\",\"extra\":[{\"text\":\" World\"}]},{\"text\":\".\"}]}",
+                serializer.toJson(msg, "en_us"));
+        assertEquals("{\"text\":\"Hello World.\",\"color\":\"yellow\"}", serializer.toCompactJson(msg, "en_us"));
+    }
+
+    @Test
+    void compactTemplateJson() {
+        MessageTemplate template = MessageTemplate.of(MCMessage.blank().setColor(MCMessage.MessageColor.YELLOW)
+                .then(MCMessage.blank().text("Hello "))
+                .then(MCMessage.blank().then(MessageTemplate.text(0)))
+                .thenDot());
+
+        assertEquals("{\"text\":\"\",\"color\":\"yellow\",\"extra\":[{\"text\":\"Hello \"},{\"text\":\"World\"},{\"text\":\".\"}]}",
+                serializer.toCompactJson(template, "en_us", "World"));
+    }
+
+    private static class TestTranslator implements Translator {
+
+        private final Map<String, String> translations = new HashMap<>();
+
+        TestTranslator put(String key, String value) {
+            translations.put(key, value);
+            return this;
+        }
+
+        @Nonnull
+        @Override
+        public String translate(String locale, String key) {
+            return translations.getOrDefault(key, key);
+        }
+
+        @Nonnull
+        @Override
+        public String translate(String locale, String key, Object... substitutes) {
+            return String.format(translate(locale, key), substitutes);
+        }
+
+        @Override
+        public boolean hasTranslation(String locale, String key) {
+            return translations.containsKey(key);
+        }
+
+        @Nonnull
+        @Override
+        public SimpleDateFormat getDateFormat(String locale) {
+            return new SimpleDateFormat();
+        }
+
+        @Override
+        public Iterable<String> getLanguages() {
+            return Collections.singletonList("en_us");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import org.junit.jupiter.api.Test;
+import work.lclpnet.serverapi.msg.MCMessage.MessageColor;
+import work.lclpnet.serverapi.msg.MCMessage.MessageStyle;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MCMessageTests {
+
+    @Test
+    void stylesAreInterned() {
+        assertSame(MessageStyle.of(MessageColor.YELLOW), MCMessage.blank().setColor(MessageColor.YELLOW).getStyle());
+        assertSame(MessageStyle.EMPTY.withBold(true).withItalic(true), MessageStyle.EMPTY.withItalic(true).withBold(true));
+        assertSame(MessageStyle.EMPTY, MessageStyle.EMPTY.withBold(true).withBold(false));
+    }
+
+    @Test
+    void stylePacking() {
+        MessageColor custom = new MessageColor(18, 52, 86);
+        MessageStyle style = MessageStyle.of(custom).withUnderline(true).withReset(true);
+
+        assertEquals(custom, style.getColor());
+        assertTrue(style.isUnderline());
+        assertTrue(style.isReset());
+        assertFalse(style.isBold());
+        assertEquals(style, MessageStyle.fromPacked(style.getPacked()));
+        assertNull(style.withColor(null).getColor());
+        assertSame(MessageColor.LIGHT_PURPLE, MessageColor.fromRGB(0xFF55FF));
+        assertSame(style.getColor(), style.getColor());
+    }
+
+    @Test
+    void styleIsNotShared() {
+        MCMessage first = MCMessage.blank().setColor(MessageColor.RED);
+        MCMessage second = MCMessage.blank().setStyle(first.getStyle());
+
+        first.editStyle(style -> style.withBold(true));
+
+        assertTrue(first.getStyle().isBold());
+        assertFalse(second.getStyle().isBold());
+        assertThrows(IllegalArgumentException.class, () -> new MessageColor(255, 855, 255));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    void deprecatedStyleSetters() {
+        MCMessage msg = MCMessage.blank().editStyle(style -> style.setBold(true).setColor(MessageColor.RED));
+
+        assertTrue(msg.getStyle().isBold());
+        assertEquals(MessageColor.RED, msg.getStyle().getColor());
+        assertEquals(MessageStyle.of(MessageColor.RED), new MessageStyle(MessageColor.RED));
+        assertEquals(MessageStyle.EMPTY, new MessageStyle());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageOptimizerTests {
+
+    @Test
+    void prefixedIsFlattened() {
+        MCMessage msg = MCMessage.prefixed()
+                .then(MCMessage.blank()
+                        .then(MCMessage.blank().text("+5 "))
+                        .thenTranslate("stat.general.coins")
+                        .setColor(MCMessage.MessageColor.RED))
+                .thenDot();
+
+        MCMessage optimized = MessageOptimizer.optimize(msg);
+
+        assertTrue(optimized.isFrozen());
+        assertEquals(4, optimized.getChildren().size());
+        assertSame(msg.getChildren().get(0), optimized.getChildren().get(0));
+
+        for (MCMessage child : optimized.getChildren()) {
+            assertTrue(child.getChildren().isEmpty());
+            assertEquals(MCMessage.ColorMode.LOCAL, child.getColorMode());
+        }
+
+        assertEquals(runs(msg), runs(optimized));
+    }
+
+    @Test
+    void adjacentTextIsMerged() {
+        MCMessage msg = MCMessage.blank().setColor(MCMessage.MessageColor.YELLOW)
+                .then(MCMessage.blank().text("Hello"))
+                .then(MCMessage.inherit().text(""))
+                .then(MCMessage.blank().then(MCMessage.inherit().text(" World")))
+                .thenDot();
+
+        MCMessage optimized = MessageOptimizer.optimize(msg);
+
+        assertTrue(optimized.isTextNode());
+        assertEquals("Hello World.", optimized.getText());
+        assertEquals(MCMessage.MessageColor.YELLOW, optimized.getStyle().getColor());
+        assertEquals(runs(msg), runs(optimized));
+    }
+
+    @Test
+    void substitutesAreOptimized() {
+        MCMessage msg = MCMessage.error().thenTranslate("mc.search_player", MCMessage.blank()
+                .then(MCMessage.blank().setColor(MCMessage.MessageColor.YELLOW).text("Ste"))
+                .then(MCMessage.inherit().text("ve")));
+
+        MCMessage optimized = MessageOptimizer.optimize(msg);
+        MCMessage.MCTranslationMessage translation = (MCMessage.MCTranslationMessage) optimized.getChildren().get(1);
+
+        assertEquals(2, translation.getSubstitutes().get(0).getChildren().size());
+        assertEquals(runs(msg), runs(optimized));
+    }
+
+    @Test
+    void templateArgumentsKeepTheirParentStyle() {
+        MessageTemplate template = MessageTemplate.of(MCMessage.prefixed()
+                .then(MCMessage.blank().setColor(MCMessage.MessageColor.GREEN).then(MessageTemplate.slot(0)))
+                .then(MessageTemplate.text(1).setColor(MCMessage.MessageColor.YELLOW)));
+
+        MCMessage argument = MCMessage.inherit().text("green");
+        MCMessage built = MCMessage.prefixed()
+                .then(MCMessage.blank().setColor(MCMessage.MessageColor.GREEN).then(argument))
+                .then(MCMessage.blank().setColor(MCMessage.MessageColor.YELLOW).text("yellow"));
+
+        assertEquals(runs(built), runs(template.createCompact(argument, "yellow")));
+        assertEquals(runs(built), runs(MessageOptimizer.optimize(template.create(argument, "yellow"))));
+    }
+
+    /**
+     * Collects the text runs of a message with their effective style, like the {@link JsonMessageSerializer} would display them.
+     */
+    private static List<String> runs(MCMessage msg) {
+        List<String> runs = new ArrayList<>();
+        collect(msg, MCMessage.MessageStyle.EMPTY, runs);
+
+        // merge adjacent runs with the same style, since they look the same
+        List<String> merged = new ArrayList<>();
+
+        for (String run : runs) {
+            int last = merged.size() - 1;
+            String style = run.substring(0, run.indexOf('|'));
+
+            if (last >= 0 && merged.get(last).startsWith(style + "|")) {
+                merged.set(last, merged.get(last) + run.substring(style.length() + 1));
+            } else {
+                merged.add(run);
+            }
+        }
+
+        return merged;
+    }
+
+    private static void collect(MCMessage msg, MCMessage.MessageStyle parent, List<String> runs) {
+        MCMessage.MessageStyle style = JsonMessageSerializer.effectiveStyle(msg, parent);
+        // reset only matters for the color, which is part of the style string already
+        String styleKey = Integer.toHexString(style.withReset(false).getPacked());
+
+        if (msg instanceof MCMessage.MCTranslationMessage) {
+            runs.add(styleKey + "|<" + msg.getText() + ">");
+
+            for (MCMessage substitute : ((MCMessage.MCTranslationMessage) msg).getSubstitutes()) {
+                collect(substitute, style, runs);
+            }
+
+            runs.add(styleKey + "|</" + msg.getText() + ">");
+        } else if (msg.isTextNode()) {
+            if (!msg.getText().isEmpty()) runs.add(styleKey + "|" + msg.getText());
+        } else {
+            for (MCMessage child : msg.getChildren()) {
+                collect(child, style, runs);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageTemplateTests {
+
+    @Test
+    void createMatchesBuiltMessage() {
+        MessageTemplate template = MessageTemplate.of(MCMessage.prefixed()
+                .thenTranslate("mc.search_player", MessageTemplate.text(0).setColor(MCMessage.MessageColor.YELLOW))
+                .then(MessageTemplate.translate(1)));
+
+        MCMessage built = MCMessage.prefixed()
+                .thenTranslate("mc.search_player", MCMessage.blank().setColor(MCMessage.MessageColor.YELLOW).text("Steve"))
+                .thenTranslate("stats.loading_yours");
+
+        assertEquals(2, template.getArity());
+        assertEquals(render(built), render(template.create("Steve", "stats.loading_yours")));
+    }
+
+    @Test
+    void messageIsKeptAsBuilt() {
+        MCMessage msg = MCMessage.prefixed().then(MCMessage.blank().setColor(MCMessage.MessageColor.RED).then(MessageTemplate.slot(0)));
+
+        // the message is not optimized, since renderers other than the JsonMessageSerializer might rely on its structure
+        assertSame(msg, MessageTemplate.of(msg).getMessage());
+    }
+
+    @Test
+    void compactMessageIsOptimizedOnce() {
+        MessageTemplate template = MessageTemplate.of(MCMessage.prefixed().thenTranslate("stats.loading_yours").thenDot());
+
+        MCMessage compact = template.createCompact();
+
+        assertSame(compact, template.createCompact());
+        assertTrue(compact.isFrozen());
+    }
+
+    @Test
+    void constantPartsAreShared() {
+        MessageTemplate template = MessageTemplate.of(MCMessage.prefixed().then(MessageTemplate.slot(0)));
+
+        MCMessage first = template.create(MCMessage.blank().text("a"));
+        MCMessage second = template.create(MCMessage.blank().text("b"));
+
+        assertNotSame(first, second);
+        assertSame(first.getChildren().get(0), second.getChildren().get(0));
+        assertTrue(first.getChildren().get(0).isFrozen());
+        assertFalse(first.isFrozen());
+
+        first.setColor(MCMessage.MessageColor.RED);
+        assertEquals(MCMessage.MessageColor.GRAY, second.getStyle().getColor());
+    }
+
+    @Test
+    void frozenMessagesCannotBeModified() {
+        MCMessage frozen = MCMessage.blank().then(MCMessage.blank().text("a")).freeze();
+
+        assertThrows(IllegalStateException.class, () -> frozen.then(MCMessage.blank()));
+        assertThrows(IllegalStateException.class, () -> frozen.setColor(MCMessage.MessageColor.RED));
+        assertThrows(IllegalStateException.class, () -> frozen.editStyle(style -> style.withBold(true)));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getChildren().clear());
+        assertTrue(frozen.getChildren().get(0).isFrozen());
+    }
+
+    @Test
+    void prefixIsShared() {
+        assertSame(MCMessage.prefixed().getChildren().get(0), MCMessage.error().getChildren().get(0));
+    }
+
+    @Test
+    void invalidArguments() {
+        MessageTemplate template = MessageTemplate.of(MCMessage.blank().then(MessageTemplate.translate(0)));
+
+        assertThrows(IllegalArgumentException.class, template::create);
+        assertThrows(IllegalArgumentException.class, () -> template.create(5));
+    }
+
+    private static String render(MCMessage msg) {
+        return RawMCMessageImplementation.convertMCMessageToString(msg, "en_us");
+    }
+}
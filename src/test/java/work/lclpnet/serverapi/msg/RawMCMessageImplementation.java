@@ -17,39 +17,44 @@ import java.util.Objects;
 
 public class RawMCMessageImplementation {
 
-    public static String convertMCMessageToString(MCMessage msg, String language) {
-        return convertMCMessageToString(msg, language, new Translator() {
-            @Nonnull
-            @Override
-            public String translate(String locale, String key) {
-                return String.format("translate('%s', %s)", key, locale);
-            }
+    /**
+     * A translator that prints the translation key, locale and substitutes.
+     */
+    public static final Translator DEBUG_TRANSLATOR = new Translator() {
+        @Nonnull
+        @Override
+        public String translate(String locale, String key) {
+            return String.format("translate('%s', %s)", key, locale);
+        }
 
-            @Nonnull
-            @Override
-            public String translate(String locale, String key, Object... substitutes) {
-                return String.format("translate('%s', %s, %s)",
-                        key,
-                        locale,
-                        Arrays.toString(substitutes));
-            }
+        @Nonnull
+        @Override
+        public String translate(String locale, String key, Object... substitutes) {
+            return String.format("translate('%s', %s, %s)",
+                    key,
+                    locale,
+                    Arrays.toString(substitutes));
+        }
 
-            @Override
-            public boolean hasTranslation(String locale, String key) {
-                return true;
-            }
+        @Override
+        public boolean hasTranslation(String locale, String key) {
+            return true;
+        }
 
-            @Nonnull
-            @Override
-            public SimpleDateFormat getDateFormat(String locale) {
-                return new SimpleDateFormat();
-            }
+        @Nonnull
+        @Override
+        public SimpleDateFormat getDateFormat(String locale) {
+            return new SimpleDateFormat();
+        }
 
-            @Override
-            public Iterable<String> getLanguages() {
-                return Collections.singletonList("none");
-            }
-        });
+        @Override
+        public Iterable<String> getLanguages() {
+            return Collections.singletonList("none");
+        }
+    };
+
+    public static String convertMCMessageToString(MCMessage msg, String language) {
+        return convertMCMessageToString(msg, language, DEBUG_TRANSLATOR);
     }
 
     public static String convertMCMessageToString(MCMessage msg, String language, Translator translationService) {
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.msg;
+
+import org.junit.jupiter.api.Test;
+import work.lclpnet.serverapi.util.ServerCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderCacheTests {
+
+    private final AtomicInteger renders = new AtomicInteger(0);
+    private final RenderCache<String> cache = new RenderCache<>((msg, language) -> {
+        renders.incrementAndGet();
+        return RawMCMessageImplementation.convertMCMessageToString(msg, language);
+    }, 2);
+
+    @Test
+    void structurallyEqualMessagesAreRenderedOnce() {
+        String first = cache.render(coins(10), "en_us");
+        String second = cache.render(coins(10), "en_us");
+
+        assertEquals(first, second);
+        assertEquals(1, renders.get());
+
+        cache.render(coins(10), "de_de");
+        cache.render(coins(5), "en_us");
+        assertEquals(3, renders.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void cachedMessagesCannotBeChangedByCaller() {
+        MCMessage msg = coins(10);
+        cache.render(msg, "en_us");
+
+        msg.then(MCMessage.blank().text("!"));
+        cache.render(msg, "en_us");
+        cache.render(coins(10), "en_us");
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        cache.render(coins(1), "en_us");
+        cache.render(coins(2), "en_us");
+        cache.render(coins(1), "en_us");
+        cache.render(coins(3), "en_us");
+
+        assertEquals(2, cache.getSize());
+
+        cache.render(coins(1), "en_us");
+        assertEquals(3, renders.get());
+
+        cache.render(coins(2), "en_us");
+        assertEquals(4, renders.get());
+    }
+
+    @Test
+    void templateArguments() {
+        MessageTemplate template = MessageTemplate.of(MCMessage.prefixed().thenTranslate("stat.change", MessageTemplate.text(0)));
+
+        cache.render(template, "en_us", "+10");
+        cache.render(template, "en_us", "+10");
+        cache.render(template, "en_us", "-10");
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void invalidatedOnReload() {
+        ServerTranslations translations = new ServerTranslations(new ServerCache(),
+                RawMCMessageImplementation.DEBUG_TRANSLATOR, () -> CompletableFuture.completedFuture(null));
+
+        cache.invalidateOnReload(translations);
+        cache.render(coins(10), "en_us");
+
+        translations.reloadTranslations().join();
+        assertEquals(0, cache.getSize());
+
+        cache.render(coins(10), "en_us");
+        assertEquals(2, renders.get());
+    }
+
+    private static MCMessage coins(int amount) {
+        return MCMessage.prefixed().thenTranslate("stat.general.coins", MCMessage.blank().text(Integer.toString(amount)));
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.net;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import work.lclpnet.lclpnetwork.api.APIAccess;
+import work.lclpnet.lclpnetwork.api.APIException;
+import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.serverapi.MCServerAPI;
+import work.lclpnet.serverapi.api.MassIncrementTransaction;
+import work.lclpnet.serverapi.util.CachedValue;
+import work.lclpnet.serverapi.util.Futures;
+import work.lclpnet.serverapi.util.OperatorCache;
+import work.lclpnet.serverapi.util.RequestTracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResilienceTests {
+
+    private static final ApiRequest REQUEST = ApiRequest.post("api/mc/admin/update-last-seen", new JsonObject());
+
+    @Test
+    void interceptorOrder() {
+        List<String> calls = new ArrayList<>();
+        RequestPipeline pipeline = new RequestPipeline(request -> {
+            calls.add("transport " + request.getAttribute("tag"));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        pipeline.addInterceptor((request, chain) -> {
+            calls.add("first");
+            return chain.proceed(request.withAttribute("tag", "tagged"));
+        });
+        pipeline.addInterceptor((request, chain) -> {
+            calls.add("second");
+            return chain.proceed(request);
+        });
+
+        pipeline.execute(REQUEST).join();
+
+        assertEquals(3, calls.size());
+        assertEquals("first", calls.get(0));
+        assertEquals("second", calls.get(1));
+        assertEquals("transport tagged", calls.get(2));
+    }
+
+    @Test
+    void circuitBreakerOpensAndRecovers() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreakerInterceptor breakers = new CircuitBreakerInterceptor(new CircuitBreakerConfig()
+                .setWindowSize(4)
+                .setMinimumCalls(4)
+                .setFailureRateThreshold(0.5F)
+                .setHalfOpenCalls(1)
+                .setOpenDuration(10, TimeUnit.SECONDS), clock::get);
+
+        boolean[] fail = {true};
+        RequestPipeline pipeline = new RequestPipeline(request -> fail[0]
+                ? Futures.failed(APIException.NO_CONNECTION)
+                : CompletableFuture.completedFuture(null));
+        pipeline.addInterceptor(breakers);
+
+        for (int i = 0; i < 4; i++) {
+            assertCause(APIException.class, pipeline.execute(REQUEST));
+        }
+
+        CircuitBreaker breaker = breakers.getCircuitBreaker(REQUEST.getPath());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertCause(CircuitOpenException.class, pipeline.execute(REQUEST));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        fail[0] = false;
+
+        assertNull(pipeline.execute(REQUEST).join());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void bulkheadLimitsInFlight() {
+        List<CompletableFuture<APIResponse>> pending = new ArrayList<>();
+        RequestPipeline pipeline = new RequestPipeline(request -> {
+            CompletableFuture<APIResponse> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+
+        BulkheadInterceptor bulkhead = new BulkheadInterceptor(2);
+        pipeline.addInterceptor(bulkhead);
+
+        pipeline.execute(REQUEST);
+        pipeline.execute(REQUEST);
+        assertEquals(2, bulkhead.getInFlight(REQUEST.getPath()));
+        assertCause(BulkheadFullException.class, pipeline.execute(REQUEST));
+
+        // other endpoints are not affected
+        pipeline.execute(ApiRequest.get("api/mc/admin/get-registered-languages"));
+        assertEquals(3, pending.size());
+
+        pending.get(0).complete(null);
+        assertEquals(1, bulkhead.getInFlight(REQUEST.getPath()));
+        pipeline.execute(REQUEST);
+        assertEquals(4, pending.size());
+    }
+
+    @Test
+    void deadlineCancelsTransport() {
+        List<CompletableFuture<APIResponse>> pending = new ArrayList<>();
+        MCServerAPI api = new MCServerAPI(APIAccess.PUBLIC, request -> {
+            assertTrue(request.hasTimeout());
+
+            CompletableFuture<APIResponse> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+
+        assertCause(TimeoutException.class, api.withTimeout(50, TimeUnit.MILLISECONDS).isNetworkOperator("7357a549-fa3e-4342-91b2-63e5e73ed39a"));
+        assertTrue(pending.get(0).isCancelled());
+    }
+
+    @Test
+    void deadlineCompletesOnExecutor() throws InterruptedException {
+        MCServerAPI api = new MCServerAPI(APIAccess.PUBLIC, request -> new CompletableFuture<>());
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "completion"));
+
+        try {
+            CompletableFuture<String> thread = api.withTimeout(50, TimeUnit.MILLISECONDS)
+                    .withCompletionExecutor(executor)
+                    .isNetworkOperator("7357a549-fa3e-4342-91b2-63e5e73ed39a")
+                    .handle((result, error) -> {
+                        assertTrue(error instanceof CompletionException, "Unexpected error " + error);
+                        assertTrue(error.getCause() instanceof TimeoutException, "Unexpected cause " + error.getCause());
+                        return Thread.currentThread().getName();
+                    });
+
+            assertEquals("completion", thread.join());
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void deadlineCountsAsFailureAndHoldsPermit() {
+        List<CompletableFuture<APIResponse>> requests = new ArrayList<>();
+        MCServerAPI api = new MCServerAPI(APIAccess.PUBLIC, request -> {
+            // a hanging backend, the request can't be aborted
+            CompletableFuture<APIResponse> future = new CompletableFuture<>();
+            requests.add(future);
+            return TransportFuture.of(future);
+        });
+
+        CircuitBreakerInterceptor breakers = new CircuitBreakerInterceptor(new CircuitBreakerConfig()
+                .setWindowSize(2)
+                .setMinimumCalls(2)
+                .setFailureRateThreshold(1F));
+        BulkheadInterceptor bulkhead = new BulkheadInterceptor(2);
+
+        api.getPipeline().addInterceptor(breakers);
+        api.getPipeline().addInterceptor(bulkhead);
+
+        final String uuid = "7357a549-fa3e-4342-91b2-63e5e73ed39a";
+        final String path = "api/mc/admin/is-network-operator";
+        MCServerAPI timed = api.withTimeout(50, TimeUnit.MILLISECONDS);
+
+        assertCause(TimeoutException.class, timed.isNetworkOperator(uuid));
+        assertCause(TimeoutException.class, timed.isNetworkOperator(uuid));
+
+        CircuitBreaker breaker = breakers.getCircuitBreaker(path);
+        await(() -> breaker.getState() == CircuitBreaker.State.OPEN);
+        assertCause(CircuitOpenException.class, timed.isNetworkOperator(uuid));
+
+        // the requests are still running
+        assertEquals(2, bulkhead.getInFlight(path));
+
+        requests.forEach(future -> future.complete(null));
+        assertEquals(0, bulkhead.getInFlight(path));
+    }
+
+    @Test
+    void errorsAreWrapped() {
+        MCServerAPI api = new MCServerAPI(APIAccess.PUBLIC, request -> Futures.failed(APIException.NO_CONNECTION));
+
+        Throwable error = api.isNetworkOperator("7357a549-fa3e-4342-91b2-63e5e73ed39a").handle((result, e) -> e).join();
+
+        assertTrue(error instanceof CompletionException);
+        assertSame(APIException.NO_CONNECTION, error.getCause());
+    }
+
+    @Test
+    void trackerCancelsPlayerRequests() {
+        List<CompletableFuture<APIResponse>> pending = new ArrayList<>();
+        MCServerAPI api = new MCServerAPI(APIAccess.PUBLIC, request -> {
+            CompletableFuture<APIResponse> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+
+        final String uuid = "7357a549-fa3e-4342-91b2-63e5e73ed39a";
+        RequestTracker tracker = new RequestTracker();
+        CompletableFuture<Boolean> future = tracker.track(uuid, api.setPreferredLanguage(uuid, "en_us"));
+        assertEquals(1, tracker.getPendingCount(uuid));
+
+        assertEquals(1, tracker.cancelAll(uuid));
+        assertTrue(future.isCancelled());
+        assertTrue(pending.get(0).isCancelled());
+        assertEquals(0, tracker.getPendingCount(uuid));
+    }
+
+    @Test
+    void interactiveRequestsOvertakeBackground() {
+        List<ApiRequest> sent = new ArrayList<>();
+        List<CompletableFuture<APIResponse>> pending = new ArrayList<>();
+        PriorityTransport transport = new PriorityTransport(request -> {
+            CompletableFuture<APIResponse> future = new CompletableFuture<>();
+            sent.add(request);
+            pending.add(future);
+            return future;
+        }, 1, 1);
+
+        ApiRequest background = REQUEST.withPriority(RequestPriority.BACKGROUND);
+        transport.send(background);
+        transport.send(background);
+        CompletableFuture<APIResponse> interactive = transport.send(REQUEST);
+        assertEquals(1, transport.getQueued(RequestPriority.BACKGROUND));
+        assertEquals(1, transport.getQueued(RequestPriority.INTERACTIVE));
+
+        pending.get(0).complete(null);
+        assertEquals(2, sent.size());
+        assertEquals(RequestPriority.INTERACTIVE, sent.get(1).getPriority());
+
+        interactive.cancel(true);
+        assertTrue(pending.get(1).isCancelled());
+        assertEquals(3, sent.size());
+        assertEquals(0, transport.getQueued(RequestPriority.BACKGROUND));
+        assertEquals(1, transport.getRunning());
+    }
+
+    @Test
+    void offlineQueueDefersMutations() {
+        boolean[] offline = {true};
+        List<ApiRequest> sent = new ArrayList<>();
+        MCServerAPI api = new MCServerAPI(APIAccess.PUBLIC, request -> {
+            sent.add(request);
+            return offline[0]
+                    ? Futures.failed(APIException.NO_CONNECTION)
+                    : CompletableFuture.completedFuture(null);
+        });
+
+        OfflineQueue queue = new OfflineQueue(api.getPipeline(), 2);
+        api.setOfflineQueue(queue);
+
+        final String uuid = "7357a549-fa3e-4342-91b2-63e5e73ed39a";
+        assertTrue(api.incrementStat(new MassIncrementTransaction("currency")).join().isDeferred());
+        assertTrue(queue.isOffline());
+
+        // queued directly, so that it can't overtake the increment
+        assertTrue(api.setPreferredLanguage(uuid, "en_us").join());
+        assertEquals(1, sent.size());
+        assertEquals(2, queue.getSize());
+
+        // the queue is full
+        assertCause(APIException.class, api.updateLastPlayed("ls5", Collections.singletonList(uuid)));
+
+        assertEquals(0, (int) queue.drain().join());
+        assertEquals(2, queue.getSize());
+
+        offline[0] = false;
+        assertEquals(2, (int) queue.drain().join());
+        assertEquals("api/mc/admin/increment-stat", sent.get(sent.size() - 2).getPath());
+        assertEquals("api/mc/admin/set-preferred-language", sent.get(sent.size() - 1).getPath());
+        assertFalse(queue.isOffline());
+    }
+
+    @Test
+    void openCircuitIsTransient() {
+        AtomicLong clock = new AtomicLong();
+        boolean[] offline = {true};
+        List<ApiRequest> sent = new ArrayList<>();
+        MCServerAPI api = new MCServerAPI(APIAccess.PUBLIC, request -> {
+            sent.add(request);
+            return offline[0]
+                    ? Futures.failed(APIException.NO_CONNECTION)
+                    : CompletableFuture.completedFuture(null);
+        });
+
+        api.getPipeline().addInterceptor(new CircuitBreakerInterceptor(new CircuitBreakerConfig()
+                .setWindowSize(2)
+                .setMinimumCalls(2)
+                .setFailureRateThreshold(1F)
+                .setHalfOpenCalls(1)
+                .setOpenDuration(10, TimeUnit.SECONDS), clock::get));
+
+        final String uuid = "7357a549-fa3e-4342-91b2-63e5e73ed39a";
+        OperatorCache operators = new OperatorCache(1, TimeUnit.MINUTES, clock::get);
+        operators.put(uuid, true);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        // open the circuits of both endpoints
+        for (int i = 0; i < 2; i++) {
+            assertCause(APIException.class, api.incrementStat(new MassIncrementTransaction("currency")));
+            assertCause(APIException.class, api.isNetworkOperator(uuid));
+        }
+
+        assertEquals(4, sent.size());
+
+        // stale reads are served, while the circuit is open
+        CachedValue<Boolean> operator = operators.fetchNetworkOperator(api, uuid).join();
+        assertTrue(operator.isStale());
+        assertTrue(operator.getValue());
+
+        // mutations rejected by the open circuit are queued
+        OfflineQueue queue = new OfflineQueue(api.getPipeline(), 2);
+        api.setOfflineQueue(queue);
+        assertTrue(api.incrementStat(new MassIncrementTransaction("currency")).join().isDeferred());
+        assertEquals(1, queue.getSize());
+
+        // the backend is back, but the circuit is still open, the mutation is kept
+        offline[0] = false;
+        assertEquals(0, (int) queue.drain().join());
+        assertEquals(1, queue.getSize());
+        assertEquals(0L, queue.getDropped());
+        assertEquals(4, sent.size());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(1, (int) queue.drain().join());
+        assertEquals(0, queue.getSize());
+        assertEquals("api/mc/admin/increment-stat", sent.get(4).getPath());
+    }
+
+    @Test
+    void staleOperatorStatusesAreEvicted() {
+        AtomicLong clock = new AtomicLong();
+        OperatorCache operators = new OperatorCache(1, 10, TimeUnit.MINUTES, clock::get);
+        final String uuid = "7357a549-fa3e-4342-91b2-63e5e73ed39a";
+
+        operators.put(uuid, true);
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        assertEquals(OperatorCache.Status.UNKNOWN, operators.getStatus(uuid));
+        assertEquals(OperatorCache.Status.OPERATOR, operators.getStaleStatus(uuid));
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(6));
+        assertEquals(OperatorCache.Status.UNKNOWN, operators.getStaleStatus(uuid));
+        assertEquals(0, operators.getSize());
+
+        // players that are never looked up again are evicted by the sweep
+        for (int i = 0; i < 254; i++) {
+            operators.put(Integer.toString(i), false);
+        }
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        operators.put(uuid, true);
+        assertEquals(1, operators.getSize());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+
+        // the deadline thread might still be running callbacks, when the joining thread wakes up
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met in time");
+            Thread.yield();
+        }
+    }
+
+    static void assertCause(Class<? extends Throwable> type, CompletableFuture<?> future) {
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertTrue(type.isInstance(e.getCause()), "Unexpected cause " + e.getCause());
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.standin;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import work.lclpnet.lclpnetwork.api.APIAuthAccess;
+import work.lclpnet.serverapi.MCServerAPI;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process stand-in for the LCLPNetwork backend, serving the api/mc/admin endpoints from a {@link StandInState}.
+ * It binds to a random port on the loopback interface and supports configurable latency, error injection and rate limits,
+ * so that the client can be tested and benchmarked without a real backend.
+ */
+public class StandInServer implements AutoCloseable {
+
+    private static final Gson GSON = new Gson();
+
+    private final StandInState state;
+    private final String token;
+    private final HttpServer server;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong requests = new AtomicLong(0L);
+    private final Map<String, AtomicLong> requestsByPath = new ConcurrentHashMap<>();
+    private final AtomicInteger failNextCount = new AtomicInteger(0);
+    private volatile int failNextStatus = 500;
+    private volatile long minLatencyNanos = 0L, maxLatencyNanos = 0L;
+    private volatile double errorRate = 0D;
+    private volatile int errorStatus = 500;
+    private volatile boolean dropConnections = false;
+    private volatile int rateLimit = 0;
+    private final Set<String> disabledEndpoints = ConcurrentHashMap.newKeySet();
+    private double permits = 0D;
+    private long lastRefill = System.nanoTime();
+
+    public StandInServer() throws IOException {
+        this(new StandInState(), "stand-in-token");
+    }
+
+    /**
+     * @param state The state to serve.
+     * @param token The bearer token requests must be authenticated with.
+     * @throws IOException If the server could not be bound.
+     */
+    public StandInServer(StandInState state, String token) throws IOException {
+        this.state = Objects.requireNonNull(state);
+        this.token = Objects.requireNonNull(token);
+
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(scheduler);
+        this.server.start();
+    }
+
+    public StandInState getState() {
+        return state;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return The host of this server, to be used with {@link APIAuthAccess#setHost(String)}.
+     */
+    public String getHost() {
+        InetSocketAddress address = server.getAddress();
+        return String.format("http://%s:%d", address.getHostString(), address.getPort());
+    }
+
+    /**
+     * @return A new API instance, which is authenticated against this server.
+     */
+    public MCServerAPI createAPI() {
+        APIAuthAccess access = new APIAuthAccess(token);
+        access.setHost(getHost());
+        return new MCServerAPI(access);
+    }
+
+    /**
+     * Sets the latency of responses. For each request, a latency in [min;max] is chosen at random.
+     *
+     * @param min  The minimum latency.
+     * @param max  The maximum latency.
+     * @param unit The unit of the latencies.
+     * @return This server.
+     */
+    public StandInServer setLatency(long min, long max, TimeUnit unit) {
+        if (min < 0L || max < min) throw new IllegalArgumentException("Invalid latency range");
+
+        this.minLatencyNanos = unit.toNanos(min);
+        this.maxLatencyNanos = unit.toNanos(max);
+        return this;
+    }
+
+    /**
+     * Lets a fraction of requests fail at random.
+     *
+     * @param rate   The fraction of requests that should fail, in [0;1].
+     * @param status The status code of the failed responses.
+     * @return This server.
+     */
+    public StandInServer setErrorRate(double rate, int status) {
+        if (rate < 0D || rate > 1D) throw new IllegalArgumentException("The error rate must be in range [0;1]");
+
+        this.errorRate = rate;
+        this.errorStatus = status;
+        return this;
+    }
+
+    /**
+     * Lets the next requests fail.
+     *
+     * @param count  The number of requests that should fail.
+     * @param status The status code of the failed responses.
+     * @return This server.
+     */
+    public StandInServer failNext(int count, int status) {
+        this.failNextStatus = status;
+        this.failNextCount.set(count);
+        return this;
+    }
+
+    /**
+     * Lets the server answer requests to an endpoint with status 404, to simulate an older backend.
+     *
+     * @param path The request path, without leading slash.
+     * @return This server.
+     */
+    public StandInServer disableEndpoint(String path) {
+        disabledEndpoints.add(path);
+        return this;
+    }
+
+    /**
+     * Lets the server close connections without a response, to simulate an unreachable backend.
+     *
+     * @param dropConnections Whether connections should be dropped.
+     * @return This server.
+     */
+    public StandInServer setDropConnections(boolean dropConnections) {
+        this.dropConnections = dropConnections;
+        return this;
+    }
+
+    /**
+     * Limits the rate of requests. Excess requests are answered with status 429.
+     *
+     * @param requestsPerSecond The maximum number of requests per second, or 0 for no limit.
+     * @return This server.
+     */
+    public StandInServer setRateLimit(int requestsPerSecond) {
+        if (requestsPerSecond < 0) throw new IllegalArgumentException("The rate limit must not be negative");
+
+        synchronized (this) {
+            this.rateLimit = requestsPerSecond;
+            this.permits = requestsPerSecond;
+            this.lastRefill = System.nanoTime();
+        }
+
+        return this;
+    }
+
+    /**
+     * @return The total number of received requests.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @param path The request path, without leading slash.
+     * @return The number of received requests to the path.
+     */
+    public long getRequestCount(String path) {
+        AtomicLong count = requestsByPath.get(path);
+        return count != null ? count.get() : 0L;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.startsWith("/")) path = path.substring(1);
+
+        requests.incrementAndGet();
+        requestsByPath.computeIfAbsent(path, p -> new AtomicLong()).incrementAndGet();
+
+        if (dropConnections) {
+            exchange.close();
+            return;
+        }
+
+        StandInState.Response response = respond(exchange, path);
+
+        long latency = minLatencyNanos;
+        if (maxLatencyNanos > latency) latency += ThreadLocalRandom.current().nextLong(maxLatencyNanos - latency + 1);
+
+        if (latency <= 0L) {
+            send(exchange, response);
+            return;
+        }
+
+        // the response is delayed without blocking a thread, so that many concurrent requests can be simulated
+        scheduler.schedule(() -> {
+            try {
+                send(exchange, response);
+            } catch (IOException e) {
+                exchange.close();
+            }
+        }, latency, TimeUnit.NANOSECONDS);
+    }
+
+    private StandInState.Response respond(HttpExchange exchange, String path) throws IOException {
+        String auth = exchange.getRequestHeaders().getFirst("Authorization");
+        if (!("Bearer " + token).equals(auth)) return StandInState.Response.error(401, "Unauthenticated.");
+
+        if (!tryAcquire()) return StandInState.Response.error(429, "Too Many Attempts.");
+
+        if (failNextCount.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            return StandInState.Response.error(failNextStatus, "Injected failure.");
+        }
+
+        if (errorRate > 0D && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return StandInState.Response.error(errorStatus, "Injected failure.");
+        }
+
+        if (disabledEndpoints.contains(path)) return StandInState.Response.error(404, "Not found.");
+
+        String method = exchange.getRequestMethod();
+        JsonObject body = null;
+
+        if (!"GET".equals(method)) {
+            try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                JsonElement element = JsonParser.parseReader(reader);
+                if (element.isJsonObject()) body = element.getAsJsonObject();
+            } catch (JsonParseException | IllegalStateException e) {
+                return StandInState.Response.error(400, "Invalid request body.");
+            }
+        }
+
+        return state.handle(method, path, body);
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (rateLimit <= 0) return true;
+
+        long now = System.nanoTime();
+        permits = Math.min(rateLimit, permits + (now - lastRefill) * rateLimit / 1e9);
+        lastRefill = now;
+
+        if (permits < 1D) return false;
+
+        permits -= 1D;
+        return true;
+    }
+
+    private static void send(HttpExchange exchange, StandInState.Response response) throws IOException {
+        byte[] bytes = GSON.toJson(response.body).getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (response.status == 429) exchange.getResponseHeaders().set("Retry-After", "1");
+
+        exchange.sendResponseHeaders(response.status, bytes.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        scheduler.shutdownNow();
+    }
+}
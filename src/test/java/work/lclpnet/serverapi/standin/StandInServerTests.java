@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.standin;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import work.lclpnet.lclpnetwork.api.APIResponse;
+import work.lclpnet.lclpnetwork.api.ResponseEvaluationException;
+import work.lclpnet.lclpnetwork.facade.MCPlayer;
+import work.lclpnet.serverapi.MCServerAPI;
+import work.lclpnet.serverapi.api.*;
+import work.lclpnet.serverapi.batch.LastPlayedAccumulator;
+import work.lclpnet.serverapi.batch.LastSeenBatcher;
+import work.lclpnet.serverapi.net.RequestPriority;
+import work.lclpnet.serverapi.util.CoinLedger;
+import work.lclpnet.serverapi.util.LeaderboardCache;
+import work.lclpnet.serverapi.util.OperatorCache;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StandInServerTests {
+
+    private static final String PLAYER = "7357a549-fa3e-4342-91b2-63e5e73ed39a";
+    private static final String OTHER_PLAYER = "4eb6bcf7-023f-4b57-b0c3-716a9dbba51f";
+
+    private StandInServer server;
+    private MCServerAPI api;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StandInServer();
+        api = server.createAPI();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void incrementAndTransact() {
+        IncrementResult increment = api.incrementStat(new CurrencyMassIncrementTransaction()
+                .addCoins(PLAYER, 5, "mcserver.tests.grant", true)).join();
+        assertTrue(increment.isSuccess());
+        assertEquals(5, server.getState().getCoins(PLAYER));
+
+        assertTrue(api.makeCoinTransaction(PLAYER, null, 10, "Test transaction", false).join().isFailureMissingCoins());
+        assertTrue(api.makeCoinTransaction(PLAYER, OTHER_PLAYER, 3, "Test transfer transaction", false).join().isSuccess());
+        assertEquals(2, server.getState().getCoins(PLAYER));
+        assertEquals(3, server.getState().getCoins(OTHER_PLAYER));
+    }
+
+    @Test
+    void playerEndpoints() {
+        server.getState().setOperator(PLAYER, true);
+        assertTrue(api.isNetworkOperator(PLAYER).join());
+        assertFalse(api.isNetworkOperator(OTHER_PLAYER).join());
+
+        assertEquals(PLAYER, api.updateLastSeen(PLAYER).join().getUuid());
+        assertTrue(server.getState().getLastSeen(PLAYER) > 0L);
+
+        assertTrue(api.setPreferredLanguage(PLAYER, "de_de").join());
+        assertEquals("de_de", server.getState().getLanguage(PLAYER));
+
+        MassUpdateResult result = api.updateLastPlayed("ls5", Arrays.asList(PLAYER, OTHER_PLAYER)).join();
+        assertTrue(result.isSuccess());
+        assertTrue(server.getState().getLastPlayed(OTHER_PLAYER, "ls5") > 0L);
+    }
+
+    @Test
+    void coinTransactionsFallBack() {
+        server.disableEndpoint("api/mc/admin/make-coin-transactions");
+        server.getState().setCoins(PLAYER, 5);
+
+        List<TransactionResult> results = api.makeCoinTransactions(new MassCoinTransaction()
+                .add(PLAYER, OTHER_PLAYER, 4, "Test transfer transaction", false)
+                .add(PLAYER, null, 4, "Test transaction", false)).join();
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isFailureMissingCoins());
+        assertEquals(2, server.getRequestCount("api/mc/admin/make-coin-transaction"));
+    }
+
+    @Test
+    void coinTransactionFallbackReportsPartialResults() {
+        server.disableEndpoint("api/mc/admin/make-coin-transactions");
+        server.getState().setCoins(PLAYER, 10);
+
+        assertTrue(api.makeCoinTransactions(new MassCoinTransaction()
+                .add(PLAYER, null, 1, "First", false)).join().get(0).isSuccess());
+
+        // the batch endpoint is known to be unsupported now, so the first request of the fallback fails
+        server.failNext(1, 503);
+
+        List<TransactionResult> results = api.makeCoinTransactions(new MassCoinTransaction()
+                .add(PLAYER, null, 1, "Second", false)
+                .add(PLAYER, null, 1, "Third", false)).join();
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isError());
+        assertTrue(results.get(1).isSkipped());
+        assertEquals(1, server.getRequestCount("api/mc/admin/make-coin-transactions"));
+        assertEquals(2, server.getRequestCount("api/mc/admin/make-coin-transaction"));
+        assertEquals(9, server.getState().getCoins(PLAYER));
+    }
+
+    @Test
+    void failedPurchaseReloadsBalance() {
+        CoinLedger ledger = new CoinLedger(api, uuid -> CompletableFuture.completedFuture(server.getState().getCoins(uuid)));
+        server.getState().setCoins(PLAYER, 10);
+        ledger.seed(PLAYER).join();
+
+        // the balance changed on the backend, e.g. by a purchase on another server
+        server.getState().setCoins(PLAYER, 4);
+        server.failNext(1, 503);
+
+        assertThrows(CompletionException.class, () -> ledger.purchase(PLAYER, null, 5, "Test", false).join());
+        assertEquals(4, ledger.getAvailable(PLAYER).orElse(-1));
+    }
+
+    @Test
+    void lastSeenBatchFallsBack() {
+        server.disableEndpoint("api/mc/admin/update-last-seen-batch");
+
+        assertEquals(2, api.updateLastSeen(Arrays.asList(PLAYER, OTHER_PLAYER), null).join().size());
+        assertTrue(server.getState().getLastSeen(OTHER_PLAYER) > 0L);
+
+        // the missing endpoint is remembered
+        api.updateLastSeen(Arrays.asList(PLAYER, OTHER_PLAYER), null).join();
+        assertEquals(1, server.getRequestCount("api/mc/admin/update-last-seen-batch"));
+        assertEquals(4, server.getRequestCount("api/mc/admin/update-last-seen"));
+    }
+
+    @Test
+    void lastSeenBatcherFlushesOnClose() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            LastSeenBatcher batcher = new LastSeenBatcher(api, null, scheduler, 60_000L, 10);
+            CompletableFuture<MCPlayer> future = batcher.updateLastSeen(PLAYER);
+
+            // UUIDs are compared case-insensitively
+            assertSame(future, batcher.updateLastSeen(PLAYER.toUpperCase(Locale.ROOT)));
+
+            batcher.close();
+            assertTrue(future.isDone());
+            assertEquals(PLAYER, future.join().getUuid());
+            assertTrue(server.getState().getLastSeen(PLAYER) > 0L);
+
+            // rejected after closing, instead of waiting for a flush that never happens
+            CompletableFuture<MCPlayer> late = batcher.updateLastSeen(OTHER_PLAYER);
+            assertTrue(late.isCompletedExceptionally());
+            assertEquals(0, batcher.getPendingCount());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void lastPlayedAccumulatorRetriesTransientFailures() {
+        LastPlayedAccumulator accumulator = new LastPlayedAccumulator(api);
+        accumulator.recordAll("ls5", Arrays.asList(PLAYER, "not a uuid"));
+        assertEquals(1, accumulator.getPendingCount("ls5"));
+
+        server.failNext(1, 503);
+        accumulator.flush().join();
+        assertEquals(1, accumulator.getPendingCount("ls5"));
+
+        server.failNext(1, 422);
+        accumulator.flush().join();
+        assertEquals(0, accumulator.getPendingCount("ls5"));
+
+        accumulator.record("ls5", OTHER_PLAYER);
+        accumulator.close();
+        assertTrue(server.getState().getLastPlayed(OTHER_PLAYER, "ls5") > 0L);
+    }
+
+    @Test
+    void leaderboardCacheFollowsIncrements() throws InterruptedException {
+        List<RequestPriority> refreshes = new CopyOnWriteArrayList<>();
+        api.getPipeline().addInterceptor((request, chain) -> {
+            if (request.getPath().endsWith("get-players-ranked")) refreshes.add(request.getPriority());
+            return chain.proceed(request);
+        });
+
+        api.incrementStat(new CurrencyMassIncrementTransaction().addPoints(PLAYER, 1)).join();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        LeaderboardCache leaderboards = new LeaderboardCache(api);
+
+        try {
+            leaderboards.track(StatItems.POINTS, 10).join();
+
+            // increments sent with the api are applied without recording them manually
+            api.incrementStat(new CurrencyMassIncrementTransaction().addPoints(PLAYER, 5)).join();
+            assertEquals(5, leaderboards.getLeaderboard(StatItems.POINTS, 10).get(0).getPendingDelta());
+
+            leaderboards.start(scheduler, 10, TimeUnit.MILLISECONDS);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (leaderboards.getLeaderboard(StatItems.POINTS, 10).get(0).getPendingDelta() != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(0, leaderboards.getLeaderboard(StatItems.POINTS, 10).get(0).getPendingDelta());
+            assertEquals(RequestPriority.INTERACTIVE, refreshes.get(0));
+            assertEquals(RequestPriority.BACKGROUND, refreshes.get(1));
+        } finally {
+            leaderboards.close();
+            scheduler.shutdownNow();
+        }
+
+        // closed caches no longer record increments
+        api.incrementStat(new CurrencyMassIncrementTransaction().addPoints(PLAYER, 5)).join();
+        assertEquals(0, leaderboards.getLeaderboard(StatItems.POINTS, 10).get(0).getPendingDelta());
+    }
+
+    @Test
+    void invalidationDuringOperatorFetch() {
+        OperatorCache operators = new OperatorCache();
+        server.getState().setOperator(PLAYER, true);
+        server.setLatency(100, 100, TimeUnit.MILLISECONDS);
+
+        CompletableFuture<OperatorCache.Status> fetch = operators.prefetch(api, PLAYER);
+        CompletableFuture<OperatorCache.Status> otherFetch = operators.prefetch(api, OTHER_PLAYER);
+        operators.invalidate(PLAYER);
+
+        // the result of the fetch is still reported, but not cached
+        assertEquals(OperatorCache.Status.OPERATOR, fetch.join());
+        assertEquals(OperatorCache.Status.UNKNOWN, operators.getStatus(PLAYER));
+
+        // the fetch of the other player is not affected
+        assertEquals(OperatorCache.Status.NOT_OPERATOR, otherFetch.join());
+        assertEquals(OperatorCache.Status.NOT_OPERATOR, operators.getStatus(OTHER_PLAYER));
+
+        assertTrue(operators.isNetworkOperator(api, PLAYER).join());
+        assertEquals(OperatorCache.Status.OPERATOR, operators.getStatus(PLAYER));
+    }
+
+    @Test
+    void injectedFailures() {
+        server.failNext(1, 503);
+        assertStatus(503, () -> api.isNetworkOperator(PLAYER).join());
+        assertFalse(api.isNetworkOperator(PLAYER).join());
+
+        server.setRateLimit(1);
+        api.isNetworkOperator(PLAYER).join();
+        assertStatus(429, () -> api.isNetworkOperator(PLAYER).join());
+        assertEquals(4, server.getRequestCount("api/mc/admin/is-network-operator"));
+    }
+
+    private static void assertStatus(int status, Runnable action) {
+        CompletionException e = assertThrows(CompletionException.class, action::run);
+        APIResponse response = ResponseEvaluationException.getResponseFromCause(e);
+        assertNotNull(response);
+        assertEquals(status, response.getResponseCode());
+    }
+}
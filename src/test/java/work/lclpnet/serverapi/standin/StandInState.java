@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.standin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import work.lclpnet.serverapi.api.StatItems;
+import work.lclpnet.serverapi.api.StatTypes;
+import work.lclpnet.serverapi.api.TransactionResult;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * The in-memory state of a {@link StandInServer}, which implements the api/mc/admin endpoints used by
+ * {@link work.lclpnet.serverapi.MCServerAPI}. All methods are thread-safe.
+ */
+public class StandInState {
+
+    private final Map<String, Player> players = new HashMap<>();
+    private final List<String> languages = new ArrayList<>(Arrays.asList("en_us", "de_de"));
+    private final Set<String> linkTokens = new HashSet<>();
+
+    /* seeding and inspection */
+
+    public synchronized void setOperator(String uuid, boolean operator) {
+        getOrCreatePlayer(uuid).operator = operator;
+    }
+
+    public synchronized void setLinked(String uuid, boolean linked) {
+        getOrCreatePlayer(uuid).linked = linked;
+    }
+
+    public synchronized void addLinkToken(String token) {
+        linkTokens.add(Objects.requireNonNull(token));
+    }
+
+    public synchronized void setRegisteredLanguages(Collection<String> languages) {
+        this.languages.clear();
+        this.languages.addAll(languages);
+    }
+
+    public synchronized void setStat(String uuid, String statType, String item, int value) {
+        getOrCreatePlayer(uuid).stats.computeIfAbsent(statType, type -> new HashMap<>()).put(item, value);
+    }
+
+    public synchronized int getStat(String uuid, String statType, String item) {
+        Player player = players.get(uuid);
+        if (player == null) return 0;
+
+        Map<String, Integer> stat = player.stats.get(statType);
+        if (stat == null) return 0;
+
+        return stat.getOrDefault(item, 0);
+    }
+
+    public synchronized void setCoins(String uuid, int coins) {
+        setStat(uuid, StatTypes.CURRENCY, StatItems.COINS, coins);
+    }
+
+    public synchronized int getCoins(String uuid) {
+        return getStat(uuid, StatTypes.CURRENCY, StatItems.COINS);
+    }
+
+    @Nullable
+    public synchronized String getLanguage(String uuid) {
+        Player player = players.get(uuid);
+        return player != null ? player.language : null;
+    }
+
+    /**
+     * @param uuid The player UUID.
+     * @return The time in milliseconds since the epoch the player was last seen, or 0, if they were never seen.
+     */
+    public synchronized long getLastSeen(String uuid) {
+        Player player = players.get(uuid);
+        return player != null ? player.lastSeen : 0L;
+    }
+
+    public synchronized long getLastPlayed(String uuid, String statType) {
+        Player player = players.get(uuid);
+        return player != null ? player.lastPlayed.getOrDefault(statType, 0L) : 0L;
+    }
+
+    public synchronized int getPlayerCount() {
+        return players.size();
+    }
+
+    public synchronized void clear() {
+        players.clear();
+        linkTokens.clear();
+    }
+
+    /* endpoints */
+
+    /**
+     * Handles a request to an endpoint.
+     *
+     * @param method The request method.
+     * @param path   The request path, without leading slash.
+     * @param body   The request body, or null for GET requests.
+     * @return The response.
+     */
+    synchronized Response handle(String method, String path, @Nullable JsonObject body) {
+        if ("GET".equals(method)) {
+            if ("api/mc/admin/get-registered-languages".equals(path)) {
+                JsonArray array = new JsonArray();
+                languages.forEach(array::add);
+                return new Response(200, array);
+            }
+
+            return Response.error(404, "Not found.");
+        }
+
+        if (body == null) return Response.error(400, "Invalid request body.");
+
+        try {
+            switch (path) {
+                case "api/mc/admin/is-network-operator":
+                    return isNetworkOperator(body);
+                case "api/mc/admin/update-last-seen":
+                    return updateLastSeen(body);
+                case "api/mc/admin/update-last-seen-batch":
+                    return updateLastSeenBatch(body);
+                case "api/mc/admin/process-mclink-token":
+                    return processMCLinkToken(body);
+                case "api/mc/admin/request-mclink-reverse-token":
+                    return requestMCLinkReverseToken(body);
+                case "api/mc/admin/increment-stat":
+                    return incrementStat(body);
+                case "api/mc/admin/set-preferred-language":
+                    return setPreferredLanguage(body);
+                case "api/mc/admin/get-players-ranked":
+                    return getPlayersRanked(body);
+                case "api/mc/admin/make-coin-transaction":
+                    return makeCoinTransaction(body);
+                case "api/mc/admin/make-coin-transactions":
+                    return makeCoinTransactions(body);
+                case "api/mc/admin/update-last-played":
+                    return updateLastPlayed(body);
+                default:
+                    return Response.error(404, "Not found.");
+            }
+        } catch (ValidationException e) {
+            return Response.validation(e.field, e.getMessage());
+        }
+    }
+
+    private Response isNetworkOperator(JsonObject body) {
+        Player player = players.get(requireString(body, "uuid"));
+
+        JsonObject obj = new JsonObject();
+        obj.addProperty("op", player != null && player.operator);
+
+        return new Response(200, obj);
+    }
+
+    private Response updateLastSeen(JsonObject body) {
+        Player player = seen(requireString(body, "uuid"));
+
+        JsonObject obj = new JsonObject();
+        obj.add("player", player.toJson());
+
+        return new Response(200, obj);
+    }
+
+    private Response updateLastSeenBatch(JsonObject body) {
+        JsonArray players = new JsonArray();
+
+        for (JsonElement uuid : requireArray(body, "players")) {
+            players.add(seen(uuid.getAsString()).toJson());
+        }
+
+        JsonObject obj = new JsonObject();
+        obj.add("players", players);
+
+        return new Response(200, obj);
+    }
+
+    private Response processMCLinkToken(JsonObject body) {
+        String uuid = requireString(body, "mcUuid");
+        String token = requireString(body, "token");
+
+        if (!linkTokens.remove(token)) throw new ValidationException("token", "The selected token is invalid.");
+
+        getOrCreatePlayer(uuid).linked = true;
+
+        return new Response(201, new JsonObject());
+    }
+
+    private Response requestMCLinkReverseToken(JsonObject body) {
+        Player player = getOrCreatePlayer(requireString(body, "uuid"));
+        if (player.linked) throw new ValidationException("uuid", "The uuid has already been taken.");
+
+        String token = UUID.randomUUID().toString();
+        linkTokens.add(token);
+
+        JsonObject obj = new JsonObject();
+        obj.addProperty("token", token);
+
+        return new Response(201, obj);
+    }
+
+    private Response incrementStat(JsonObject body) {
+        String statType = requireString(body, "statType");
+
+        for (JsonElement element : requireArray(body, "transactions")) {
+            JsonObject transaction = element.getAsJsonObject();
+            Player player = getOrCreatePlayer(requireString(transaction, "uuid"));
+            Map<String, Integer> stat = player.stats.computeIfAbsent(statType, type -> new HashMap<>());
+
+            for (JsonElement itemElement : requireArray(transaction, "items")) {
+                JsonObject item = itemElement.getAsJsonObject();
+                stat.merge(requireString(item, "type"), item.get("amount").getAsInt(), Integer::sum);
+            }
+        }
+
+        return Response.status(200, "success", null);
+    }
+
+    private Response setPreferredLanguage(JsonObject body) {
+        String uuid = requireString(body, "uuid");
+        String lang = requireString(body, "lang");
+
+        if (!languages.contains(lang)) return Response.error(400, "That language is not registered.");
+
+        getOrCreatePlayer(uuid).language = lang;
+
+        return new Response(200, new JsonObject());
+    }
+
+    private Response getPlayersRanked(JsonObject body) {
+        String property = requireString(body, "property");
+        int amount = body.get("amount").getAsInt();
+
+        List<Player> ranked = new ArrayList<>(players.values());
+        ranked.sort(Comparator.comparingInt((Player player) -> player.getStatTotal(property)).reversed());
+
+        JsonArray array = new JsonArray();
+
+        for (int i = 0; i < Math.min(amount, ranked.size()); i++) {
+            array.add(ranked.get(i).toJson());
+        }
+
+        return new Response(200, array);
+    }
+
+    private Response makeCoinTransaction(JsonObject body) {
+        JsonObject result = transaction(body);
+        return new Response("success".equals(result.get("status").getAsString()) ? 201 : 200, result);
+    }
+
+    private Response makeCoinTransactions(JsonObject body) {
+        JsonArray results = new JsonArray();
+
+        for (JsonElement transaction : requireArray(body, "transactions")) {
+            results.add(transaction(transaction.getAsJsonObject()));
+        }
+
+        JsonObject obj = new JsonObject();
+        obj.add("results", results);
+
+        return new Response(200, obj);
+    }
+
+    private JsonObject transaction(JsonObject body) {
+        String payer = requireString(body, "payer_uuid");
+        JsonElement recipient = body.get("recipient_uuid");
+        int amount = body.get("amount").getAsInt();
+        requireString(body, "item_name");
+
+        if (amount <= 0) throw new ValidationException("amount", "The amount must be at least 1.");
+
+        int balance = getCoins(payer);
+
+        if (balance < amount) {
+            return Response.statusObject("failure", TransactionResult.MISSING_COINS_MESSAGE);
+        }
+
+        setCoins(payer, balance - amount);
+
+        if (recipient != null && !recipient.isJsonNull()) {
+            String recipientUuid = recipient.getAsString();
+            setCoins(recipientUuid, getCoins(recipientUuid) + amount);
+        }
+
+        return Response.statusObject("success", null);
+    }
+
+    private Response updateLastPlayed(JsonObject body) {
+        String statType = requireString(body, "statType");
+        long now = System.currentTimeMillis();
+
+        for (JsonElement uuid : requireArray(body, "players")) {
+            getOrCreatePlayer(uuid.getAsString()).lastPlayed.put(statType, now);
+        }
+
+        return Response.status(200, "success", null);
+    }
+
+    private Player seen(String uuid) {
+        Player player = getOrCreatePlayer(uuid);
+        player.lastSeen = System.currentTimeMillis();
+        return player;
+    }
+
+    private Player getOrCreatePlayer(String uuid) {
+        return players.computeIfAbsent(Objects.requireNonNull(uuid), Player::new);
+    }
+
+    private static String requireString(JsonObject obj, String field) {
+        JsonElement element = obj.get(field);
+
+        if (element == null || !element.isJsonPrimitive()) {
+            throw new ValidationException(field, String.format("The %s field is required.", field));
+        }
+
+        return element.getAsString();
+    }
+
+    private static JsonArray requireArray(JsonObject obj, String field) {
+        JsonElement element = obj.get(field);
+
+        if (element == null || !element.isJsonArray()) {
+            throw new ValidationException(field, String.format("The %s must be an array.", field));
+        }
+
+        return element.getAsJsonArray();
+    }
+
+    private static class Player {
+
+        private final String uuid;
+        private final Map<String, Map<String, Integer>> stats = new HashMap<>();
+        private final Map<String, Long> lastPlayed = new HashMap<>();
+        @Nullable
+        private String language = null;
+        private boolean operator = false, linked = false;
+        private long lastSeen = 0L;
+
+        Player(String uuid) {
+            this.uuid = uuid;
+        }
+
+        int getStatTotal(String item) {
+            int total = 0;
+
+            for (Map<String, Integer> stat : stats.values()) {
+                total += stat.getOrDefault(item, 0);
+            }
+
+            return total;
+        }
+
+        JsonObject toJson() {
+            JsonObject obj = new JsonObject();
+            obj.addProperty("uuid", uuid);
+            obj.addProperty("language", language);
+            return obj;
+        }
+    }
+
+    private static class ValidationException extends RuntimeException {
+
+        private final String field;
+
+        ValidationException(String field, String message) {
+            super(message);
+            this.field = field;
+        }
+    }
+
+    static class Response {
+
+        final int status;
+        final JsonElement body;
+
+        Response(int status, JsonElement body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response error(int status, String message) {
+            JsonObject obj = new JsonObject();
+            obj.addProperty("message", message);
+            return new Response(status, obj);
+        }
+
+        static Response validation(String field, String message) {
+            JsonArray messages = new JsonArray();
+            messages.add(message);
+
+            JsonObject errors = new JsonObject();
+            errors.add(field, messages);
+
+            JsonObject obj = new JsonObject();
+            obj.addProperty("message", message);
+            obj.add("errors", errors);
+
+            return new Response(422, obj);
+        }
+
+        static Response status(int code, String status, @Nullable String message) {
+            return new Response(code, statusObject(status, message));
+        }
+
+        static JsonObject statusObject(String status, @Nullable String message) {
+            JsonObject obj = new JsonObject();
+            obj.addProperty("status", status);
+            if (message != null) obj.addProperty("message", message);
+            return obj;
+        }
+    }
+}
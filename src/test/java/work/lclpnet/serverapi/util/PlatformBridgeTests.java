@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.util;
+
+import org.junit.jupiter.api.Test;
+import work.lclpnet.serverapi.msg.MCMessage;
+import work.lclpnet.serverapi.msg.MessageRenderer;
+import work.lclpnet.serverapi.msg.RawMCMessageImplementation;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PlatformBridgeTests {
+
+    @Test
+    void broadcastRendersOncePerLanguage() {
+        AtomicInteger renders = new AtomicInteger(0);
+        Map<String, String> received = new HashMap<>();
+        List<String> players = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            players.add(UUID.randomUUID().toString());
+        }
+
+        IPlatformBridge.IRenderingPlatformBridge<String> bridge = new IPlatformBridge.IRenderingPlatformBridge<String>() {
+            @Override
+            public MessageRenderer<String> getRenderer() {
+                return (msg, language) -> {
+                    renders.incrementAndGet();
+                    return RawMCMessageImplementation.convertMCMessageToString(msg, language);
+                };
+            }
+
+            @Override
+            public String getLanguage(String playerUuid) {
+                return players.indexOf(playerUuid) % 3 == 0 ? "de_de" : "en_us";
+            }
+
+            @Override
+            public void sendRendered(String playerUuid, String rendered) {
+                received.put(playerUuid, rendered);
+            }
+
+            @Override
+            public CompletableFuture<String> getPlayerNameByUUID(String playerUuid) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<String> getPlayerUUIDByName(String name) {
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+
+        bridge.broadcast(players, MCMessage.prefixed().thenTranslate("stats.loading_yours"));
+
+        assertEquals(2, renders.get());
+        assertEquals(200, received.size());
+        assertEquals("LCLPNetwork> translate('stats.loading_yours', de_de, [])", received.get(players.get(0)));
+        assertEquals("LCLPNetwork> translate('stats.loading_yours', en_us, [])", received.get(players.get(1)));
+    }
+}
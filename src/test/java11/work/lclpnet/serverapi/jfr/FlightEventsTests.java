@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2023 LCLP.
+ *
+ * Licensed under the MIT License. For more information, consider the LICENSE file in the project's root directory.
+ */
+
+package work.lclpnet.serverapi.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import work.lclpnet.serverapi.standin.StandInServer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs on the multi-release jar, see the testMultiRelease task, so that the Java 11 variant of {@link FlightEvents} is loaded.
+ */
+public class FlightEventsTests {
+
+    private static final String REQUEST_EVENT = "work.lclpnet.serverapi.ApiRequest";
+
+    @Test
+    void multiReleaseVariantIsLoaded() {
+        assertTrue(FlightEvents.isSupported());
+    }
+
+    @Test
+    void requestsAreRecorded() throws IOException {
+        Path file = Files.createTempFile("requests", ".jfr");
+
+        try {
+            try (StandInServer server = new StandInServer(); Recording recording = new Recording()) {
+                recording.enable(REQUEST_EVENT);
+                recording.start();
+
+                server.createAPI().isNetworkOperator("7357a549-fa3e-4342-91b2-63e5e73ed39a").join();
+
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            assertTrue(events.stream().anyMatch(event -> REQUEST_EVENT.equals(event.getEventType().getName())
+                    && event.getString("endpoint").endsWith("is-network-operator")
+                    && event.getInt("status") == 200));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void disabledEventsAreNotAllocated() {
+        // without a recording that enables the event, no event is created
+        assertSame(EventSpan.NOOP, FlightEvents.beginRequest("GET", "api/mc/admin/is-network-operator"));
+    }
+}